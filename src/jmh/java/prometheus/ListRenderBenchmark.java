@@ -0,0 +1,42 @@
+package prometheus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import prometheus.command.ListCommand;
+
+/**
+ * Measures rendering the whole task list through {@link ListCommand}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListRenderBenchmark {
+    @Param({"10000", "100000"})
+    private int taskCount;
+
+    private TaskList tasks;
+    private Storage storage;
+
+    /**
+     * Builds an in-memory list cycling through todos, deadlines and events.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws PrometheusException {
+        tasks = new TaskList(StorageLoadBenchmark.createTasks(taskCount));
+        storage = new Storage(null);
+    }
+
+    @Benchmark
+    public String list() throws PrometheusException {
+        return new ListCommand().execute(tasks, storage).render();
+    }
+}
@@ -0,0 +1,85 @@
+package prometheus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares {@link Prometheus#runPipelined} against the interactive loop of {@link Prometheus#run()}
+ * on the text UI test input repeated to the given number of lines. Each invocation starts from an empty
+ * task file with the default write-behind delay, and the output is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PipelineBenchmark {
+    @Param({"1000000"})
+    private int lineCount;
+
+    private byte[] input;
+    private Path directory;
+    private Prometheus prometheus;
+
+    /**
+     * Builds the input by repeating the lines of the text UI test.
+     */
+    @Setup(Level.Trial)
+    public void setUpInput() throws IOException {
+        List<String> lines = Files.readAllLines(Path.of("text-ui-test", "input.txt"));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            sb.append(lines.get(i % lines.size())).append('\n');
+        }
+        input = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts each run from an empty task file.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("prometheus-bench");
+        prometheus = new Prometheus(directory.resolve("tasks.txt").toString());
+    }
+
+    /**
+     * Deletes the files written during the run.
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void sequential() {
+        prometheus.run(new ByteArrayInputStream(input), new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    public void pipelined() {
+        prometheus.runPipelined(new ByteArrayInputStream(input), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,119 @@
+package prometheus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import prometheus.task.Deadline;
+import prometheus.task.Event;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+/**
+ * Compares the strategies {@link Storage#load()} can use to read a snapshot file,
+ * and the text snapshot against the binary one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageLoadBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int taskCount;
+
+    private Path directory;
+    private String filePath;
+    private String binaryFilePath;
+
+    /**
+     * Writes a snapshot holding an even mix of todos, deadlines and events.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, PrometheusException {
+        directory = Files.createTempDirectory("prometheus-bench");
+        filePath = directory.resolve("tasks.txt").toString();
+        TaskList tasks = new TaskList(createTasks(taskCount));
+        new Storage(filePath).save(tasks);
+
+        binaryFilePath = directory.resolve("tasks.bin").toString();
+        Storage binaryStorage = new Storage(binaryFilePath);
+        binaryStorage.setFormat(Storage.Format.BINARY);
+        binaryStorage.save(tasks);
+    }
+
+    /**
+     * Deletes the snapshot written for the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(filePath));
+        Files.deleteIfExists(Path.of(binaryFilePath));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadLines() throws PrometheusException {
+        return load(Storage.LoadMode.LINES);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadMapped() throws PrometheusException {
+        return load(Storage.LoadMode.MAPPED);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadParallel() throws PrometheusException {
+        return load(Storage.LoadMode.PARALLEL);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadBinary() throws PrometheusException {
+        Storage storage = new Storage(binaryFilePath);
+        storage.setFormat(Storage.Format.BINARY);
+        return storage.load();
+    }
+
+    private ArrayList<Task> load(Storage.LoadMode loadMode) throws PrometheusException {
+        Storage storage = new Storage(filePath);
+        storage.setLoadMode(loadMode);
+        return storage.load();
+    }
+
+    /**
+     * Creates a list cycling through todos, deadlines and events.
+     *
+     * @param count The number of tasks to create
+     * @return The created tasks
+     */
+    static ArrayList<Task> createTasks(int count) throws PrometheusException {
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime time = start.plusMinutes(i);
+            switch (i % 3) {
+            case 0:
+                tasks.add(new Todo("read chapter " + i));
+                break;
+            case 1:
+                tasks.add(new Deadline("submit report " + i, time));
+                break;
+            default:
+                tasks.add(new Event("project meeting " + i, time, time.plusHours(1)));
+                break;
+            }
+        }
+        return tasks;
+    }
+}
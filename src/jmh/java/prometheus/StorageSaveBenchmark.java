@@ -0,0 +1,116 @@
+package prometheus;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import prometheus.task.Task;
+
+/**
+ * Compares {@link Storage#save(TaskList)}, which streams into a temporary file, forces it to disk and
+ * moves it into place, against the unbuffered per-line FileWriter it replaced.
+ * The writer baseline does not force anything to disk, so it measures less work than the atomic save.
+ * Text saves copy each unchanged task's cached record, so saves after one change and after changing
+ * every task show the cost of encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageSaveBenchmark {
+    @Param({"100000"})
+    private int taskCount;
+
+    private Path directory;
+    private TaskList tasks;
+    private Storage textStorage;
+    private Storage binaryStorage;
+    private String writerFilePath;
+
+    /**
+     * Creates the tasks to save and a storage for each format.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, PrometheusException {
+        directory = Files.createTempDirectory("prometheus-bench");
+        tasks = new TaskList(StorageLoadBenchmark.createTasks(taskCount));
+        textStorage = new Storage(directory.resolve("tasks.txt").toString());
+        binaryStorage = new Storage(directory.resolve("tasks.bin").toString());
+        binaryStorage.setFormat(Storage.Format.BINARY);
+        writerFilePath = directory.resolve("writer.txt").toString();
+    }
+
+    /**
+     * Deletes the files written during the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (String name : List.of("tasks.txt", "tasks.bin", "writer.txt")) {
+            Files.deleteIfExists(directory.resolve(name));
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void saveAtomicText() throws PrometheusException {
+        textStorage.save(tasks);
+    }
+
+    /**
+     * Saves after changing a single task, so only that task has to be encoded again.
+     */
+    @Benchmark
+    public void saveAtomicTextOneChanged() throws PrometheusException {
+        Task task = tasks.get(taskCount / 2);
+        if (task.isDone()) {
+            task.markAsNotDone();
+        } else {
+            task.markAsDone();
+        }
+        textStorage.save(tasks);
+    }
+
+    /**
+     * Saves after changing every task, so every task has to be encoded again.
+     */
+    @Benchmark
+    public void saveAtomicTextAllChanged() throws PrometheusException {
+        for (Task task : tasks) {
+            task.setPriority(task.getPriority());
+        }
+        textStorage.save(tasks);
+    }
+
+    @Benchmark
+    public void saveAtomicBinary() throws PrometheusException {
+        binaryStorage.save(tasks);
+    }
+
+    @Benchmark
+    public void saveFileWriter() throws IOException {
+        writeLineByLine(tasks.getAllTasks(), writerFilePath);
+    }
+
+    /**
+     * The previous implementation of the text snapshot write, kept as a baseline.
+     */
+    private static void writeLineByLine(List<Task> tasks, String filePath) throws IOException {
+        try (FileWriter writer = new FileWriter(filePath)) {
+            for (Task task : tasks) {
+                writer.write(task.toFileString() + System.lineSeparator());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package prometheus;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import prometheus.task.Deadline;
+import prometheus.task.Event;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+/**
+ * Compares {@link Task#fromFileString(String)} against the regex-splitting decoder it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskDecodeBenchmark {
+    private final String[] records = {
+        "T | 1 | 2 | read chapter 12 of the textbook",
+        "D | 0 | 1 | submit project report | 2024-03-15 2359",
+        "E | 0 | 0 | team meeting about the release | 2024-03-16 1400 | 2024-03-16 1600",
+    };
+
+    @Benchmark
+    public void decodeSinglePass(Blackhole blackhole) throws PrometheusException {
+        for (String record : records) {
+            blackhole.consume(Task.fromFileString(record));
+        }
+    }
+
+    @Benchmark
+    public void decodeSplit(Blackhole blackhole) throws PrometheusException {
+        for (String record : records) {
+            blackhole.consume(splitDecode(record));
+        }
+    }
+
+    /**
+     * The previous implementation of {@link Task#fromFileString(String)}, kept as a baseline.
+     */
+    private static Task splitDecode(String fileString) throws PrometheusException {
+        String[] parts = fileString.split(" \\| ");
+        String description = parts[3].trim();
+        Task task = switch (parts[0].trim()) {
+        case "T" -> new Todo(description);
+        case "D" -> new Deadline(description, parseDateTime(parts[4].trim()));
+        case "E" -> new Event(description, parseDateTime(parts[4].trim()), parseDateTime(parts[5].trim()));
+        default -> throw new PrometheusException("Unknown task type: " + parts[0]);
+        };
+        task.setPriority(Priority.values()[Integer.parseInt(parts[2].trim())]);
+        if (parts[1].trim().equals("1")) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static LocalDateTime parseDateTime(String dateTimeString) {
+        return LocalDateTime.parse(dateTimeString, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+    }
+}
@@ -0,0 +1,145 @@
+package prometheus.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput of a running {@link PrometheusServer}. It is a development tool, kept with the
+ * benchmarks rather than shipped in the application jar.
+ * A number of clients send commands concurrently, each waiting for a response before sending the next,
+ * and the request rate and latency percentiles are printed once every request has been answered.
+ * The commands cycle between adding a task, searching for it and listing the top tasks,
+ * so a third of the requests change the task list.
+ */
+public class LoadClient {
+    private static final int DEFAULT_REQUESTS = 20_000;
+    private static final int DEFAULT_CLIENTS = 16;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final String token;
+
+    /**
+     * Constructs a client for the server listening on the given loopback port.
+     *
+     * @param port The port of the server
+     * @param token The token of the server
+     */
+    public LoadClient(int port, String token) {
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.uri = URI.create("http://127.0.0.1:" + port + PrometheusServer.COMMAND_PATH);
+        this.token = token;
+    }
+
+    /**
+     * Sends a single command and returns the response body.
+     *
+     * @param command The command to send
+     * @return The response to the command
+     * @throws IOException If the request fails or the server reports an error
+     * @throws InterruptedException If interrupted while waiting for the response
+     */
+    public String send(String command) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header(PrometheusServer.TOKEN_HEADER, token)
+                .POST(HttpRequest.BodyPublishers.ofString(command))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    /**
+     * Sends the given number of requests from the given number of concurrent clients and prints the results.
+     *
+     * @param requests The total number of requests, at least 1
+     * @param clients The number of concurrent clients, at least 1
+     * @throws InterruptedException If interrupted while waiting for the clients
+     * @throws IllegalArgumentException If there are no requests or no clients
+     */
+    public void run(int requests, int clients) throws InterruptedException {
+        if (requests <= 0 || clients <= 0) {
+            throw new IllegalArgumentException("A load test needs at least one request and one client");
+        }
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = PrometheusServer.newPerRequestExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(executor.submit(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    long sent = System.nanoTime();
+                    try {
+                        send(commandFor(i));
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%d requests from %d clients in %.2f s: %.0f requests/s, %d failed%n",
+                requests, clients, elapsed / 1e9, requests / (elapsed / 1e9), failures.get());
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6,
+                latencies[requests - 1] / 1e6);
+    }
+
+    private static String commandFor(int request) {
+        int task = request / 3;
+        switch (request % 3) {
+        case 0:
+            return "todo load test task " + task;
+        case 1:
+            return "find task " + task;
+        default:
+            return "top 5";
+        }
+    }
+
+    /**
+     * Runs a load test against a server on this machine.
+     * Takes the token printed by the server, then an optional port, which defaults to
+     * {@value PrometheusServer#DEFAULT_PORT}, number of requests and number of concurrent clients.
+     *
+     * @param args The token, then the port, number of requests and number of clients, all optional
+     * @throws InterruptedException If interrupted while waiting for the clients
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadClient <token> [port] [requests] [clients]");
+            return;
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : PrometheusServer.DEFAULT_PORT;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_REQUESTS;
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CLIENTS;
+        new LoadClient(port, args[0]).run(requests, clients);
+    }
+}
@@ -0,0 +1,221 @@
+package prometheus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import prometheus.command.Command;
+import prometheus.command.CommandResult;
+
+/**
+ * Reads and parses commands ahead of the thread executing them.
+ * One thread reads lines from the input, a second trims and parses them, and the executing thread takes
+ * the parsed commands in input order, so reading and parsing overlap with execution. Lines are handed
+ * between the threads in chunks to keep the cost of each hand-over low, and the queues between them are
+ * bounded, so at most a few chunks are held in memory however long the input is.
+ * Parsing ahead is safe because parsing a command never depends on the task list.
+ */
+class CommandPipeline implements AutoCloseable {
+    /**
+     * Number of lines handed over at a time.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Number of chunks each stage may run ahead of the next.
+     */
+    private static final int QUEUE_CAPACITY = 16;
+
+    private final BufferedReader reader;
+    private final LineParser parser;
+    private final BlockingQueue<List<String>> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<List<ParsedCommand>> commands = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread readerThread;
+    private final Thread parserThread;
+
+    private List<ParsedCommand> chunk = List.of();
+    private int position;
+    private boolean isEnded;
+
+    /**
+     * Constructs a pipeline over the given input and starts its reading and parsing threads.
+     *
+     * @param reader The input, one command per line
+     */
+    CommandPipeline(BufferedReader reader) {
+        this(reader, Parser::parse);
+    }
+
+    /**
+     * Constructs a pipeline that parses its input with the given parser.
+     *
+     * @param reader The input, one command per line
+     * @param parser The parser of each trimmed line
+     */
+    CommandPipeline(BufferedReader reader, LineParser parser) {
+        this.reader = reader;
+        this.parser = parser;
+        this.readerThread = new Thread(this::readLines, "prometheus-pipeline-reader");
+        this.parserThread = new Thread(this::parseLines, "prometheus-pipeline-parser");
+        readerThread.setDaemon(true);
+        parserThread.setDaemon(true);
+        readerThread.start();
+        parserThread.start();
+    }
+
+    /**
+     * Returns the next command of the input, waiting for it to be read and parsed if necessary.
+     *
+     * @return The next command, or null at the end of the input
+     * @throws InterruptedException If interrupted while waiting
+     */
+    ParsedCommand next() throws InterruptedException {
+        if (position == chunk.size()) {
+            if (isEnded) {
+                return null;
+            }
+            chunk = commands.take();
+            position = 0;
+            if (chunk.isEmpty()) {
+                isEnded = true;
+                return null;
+            }
+        }
+        return chunk.get(position++);
+    }
+
+    /**
+     * Stops reading and parsing, discarding any input read ahead.
+     */
+    @Override
+    public void close() {
+        readerThread.interrupt();
+        parserThread.interrupt();
+    }
+
+    /**
+     * Reads the input in chunks of lines, ending with an empty chunk.
+     * A read error ends the input, as it would for a scanner. The empty chunk is put even if reading
+     * fails unexpectedly, so the stages after this one never wait for input that will not come.
+     */
+    private void readLines() {
+        try {
+            List<String> batch = new ArrayList<>(CHUNK_SIZE);
+            try {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    batch.add(line);
+                    if (batch.size() == CHUNK_SIZE) {
+                        lines.put(batch);
+                        batch = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Treated as the end of the input
+            }
+            if (!batch.isEmpty()) {
+                lines.put(batch);
+            }
+        } catch (InterruptedException e) {
+            // The pipeline was closed, so the end need not be marked
+            Thread.currentThread().interrupt();
+        } finally {
+            putEnd(lines);
+        }
+    }
+
+    /**
+     * Parses chunks of lines until the empty chunk that ends the input, which is passed on as well,
+     * even if parsing fails unexpectedly.
+     */
+    private void parseLines() {
+        try {
+            for (List<String> batch = lines.take(); !batch.isEmpty(); batch = lines.take()) {
+                List<ParsedCommand> parsed = new ArrayList<>(batch.size());
+                for (String line : batch) {
+                    parsed.add(ParsedCommand.parse(parser, line.trim()));
+                }
+                commands.put(parsed);
+            }
+        } catch (InterruptedException e) {
+            // The pipeline was closed, so the end need not be marked
+            Thread.currentThread().interrupt();
+        } finally {
+            putEnd(commands);
+        }
+    }
+
+    /**
+     * Puts the empty chunk that marks the end of the input, unless the pipeline has been closed.
+     */
+    private static <T> void putEnd(BlockingQueue<List<T>> queue) {
+        try {
+            queue.put(List.of());
+        } catch (InterruptedException e) {
+            // The pipeline was closed
+        }
+    }
+
+    /**
+     * Parses a line of input into a command.
+     */
+    @FunctionalInterface
+    interface LineParser {
+        /**
+         * Parses the line.
+         *
+         * @param line The trimmed line
+         * @return The command on the line
+         * @throws PrometheusException If the line is not a valid command
+         */
+        Command parse(String line) throws PrometheusException;
+    }
+
+    /**
+     * A line of input parsed into a command, or the error that parsing it produced.
+     */
+    static class ParsedCommand {
+        private final Command command;
+        private final PrometheusException error;
+
+        private ParsedCommand(Command command, PrometheusException error) {
+            this.command = command;
+            this.error = error;
+        }
+
+        /**
+         * Parses a line, keeping any error to be reported when the command is executed.
+         * Unexpected failures of the parser are kept as errors too, so one bad line cannot stop the pipeline.
+         */
+        static ParsedCommand parse(LineParser parser, String input) {
+            try {
+                return new ParsedCommand(parser.parse(input), null);
+            } catch (PrometheusException e) {
+                return new ParsedCommand(null, e);
+            } catch (RuntimeException e) {
+                return new ParsedCommand(null, new PrometheusException("Something went wrong: " + e));
+            }
+        }
+
+        /**
+         * Executes the command, or reports the parse error.
+         *
+         * @param tasks The task list to operate on
+         * @param storage The storage handler for saving tasks
+         * @return The result of the command, or an error result
+         */
+        CommandResult execute(TaskList tasks, Storage storage) {
+            if (error != null) {
+                return CommandResult.error(error.getMessage());
+            }
+            try {
+                return command.execute(tasks, storage);
+            } catch (PrometheusException e) {
+                return CommandResult.error(e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package prometheus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import prometheus.task.Priority;
+import prometheus.task.Task;
+
+/**
+ * Append-only log of task list mutations that sits next to the snapshot file.
+ * Each mutation is stored as a single line so that persisting it costs only the bytes of that line,
+ * independent of the size of the task list. Replaying the journal over the snapshot
+ * reproduces the task list as it was after the last recorded mutation.
+ * Tasks are referred to by their IDs, so a record stays valid however the list shifts around it.
+ * Record formats:
+ * - "+ | [task file string]": a task was appended
+ * - "- | #[id]": the task with the ID was removed
+ * - "M | #[id] | [1/0]": the task with the ID was marked or unmarked
+ * - "P | #[id] | [priority ordinal]": the priority of the task with the ID was changed
+ * Journals written before tasks had IDs refer to tasks by their 0-based index instead of "#[id]",
+ * and are still replayed.
+ * Replaying a record by ID is idempotent: a task that is already present is not added again, and records
+ * for a task that is no longer present are skipped. A journal left behind by a crash between writing
+ * a snapshot and clearing the journal can therefore be replayed over the snapshot that contains it.
+ */
+class Journal {
+    private static final String ADD = "+";
+    private static final String DELETE = "-";
+    private static final String MARK = "M";
+    private static final String PRIORITY = "P";
+    private static final String SEPARATOR = " | ";
+    private static final String ID_PREFIX = "#";
+
+    private final Path path;
+
+    /**
+     * Constructs a journal backed by the given file.
+     *
+     * @param path The path of the journal file
+     */
+    Journal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Formats a record for a task appended to the list.
+     *
+     * @param task The task that was added
+     * @return The journal record
+     */
+    static String addRecord(Task task) {
+        return ADD + SEPARATOR + task.toFileString();
+    }
+
+    /**
+     * Formats a record for a task removed from the list.
+     *
+     * @param task The removed task
+     * @return The journal record
+     */
+    static String deleteRecord(Task task) {
+        return DELETE + SEPARATOR + ID_PREFIX + task.getId();
+    }
+
+    /**
+     * Formats a record for a change in completion status.
+     *
+     * @param task The task, holding its new completion status
+     * @return The journal record
+     */
+    static String markRecord(Task task) {
+        return MARK + SEPARATOR + ID_PREFIX + task.getId() + SEPARATOR + (task.isDone() ? "1" : "0");
+    }
+
+    /**
+     * Formats a record for a change in priority.
+     *
+     * @param task The task, holding its new priority
+     * @return The journal record
+     */
+    static String priorityRecord(Task task) {
+        return PRIORITY + SEPARATOR + ID_PREFIX + task.getId() + SEPARATOR + task.getPriority().ordinal();
+    }
+
+    /**
+     * Appends records to the end of the journal, creating the file if needed, and forces them to disk
+     * before returning, so that records appended survive a crash.
+     *
+     * @param records The records to append, one per line
+     * @throws IOException If the journal cannot be written
+     */
+    void append(List<String> records) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String record : records) {
+            sb.append(record).append(System.lineSeparator());
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Replays every record in the journal over the given tasks.
+     * A malformed final record that is not terminated by a line separator is treated as a torn write
+     * from an interrupted append and ignored.
+     *
+     * @param tasks The tasks loaded from the snapshot, modified in place
+     * @return The number of records replayed
+     * @throws IOException If the journal cannot be read
+     * @throws PrometheusException If a record cannot be applied
+     */
+    int replay(ArrayList<Task> tasks) throws IOException, PrometheusException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        boolean isTerminated = content.isEmpty() || content.endsWith("\n");
+        List<String> lines = content.lines().toList();
+        Replay replay = new Replay(tasks);
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                try {
+                    replay.apply(lines.get(i));
+                } catch (PrometheusException | RuntimeException e) {
+                    boolean isTornWrite = i == lines.size() - 1 && !isTerminated;
+                    if (isTornWrite) {
+                        return i;
+                    }
+                    throw new PrometheusException("Journal line " + (i + 1) + ": " + e.getMessage());
+                }
+            }
+            return lines.size();
+        } finally {
+            replay.removePending();
+        }
+    }
+
+    /**
+     * Deletes the journal once its records have been folded into a snapshot.
+     *
+     * @throws IOException If the journal cannot be deleted
+     */
+    void clear() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Applies records to a list of tasks. Tasks removed by ID are only collected, and are taken out
+     * of the list in a single pass once replay ends, so each removal costs constant time.
+     */
+    private static class Replay {
+        private final ArrayList<Task> tasks;
+        private final Map<Long, Task> byId = new HashMap<>();
+        private final Set<Task> removed = new HashSet<>();
+
+        Replay(ArrayList<Task> tasks) {
+            this.tasks = tasks;
+            for (Task task : tasks) {
+                if (task.getId() != 0) {
+                    byId.put(task.getId(), task);
+                }
+            }
+        }
+
+        void apply(String record) throws PrometheusException {
+            String[] parts = record.split(" \\| ");
+            if (parts.length < 2) {
+                throw new PrometheusException("Invalid journal record: " + record);
+            }
+
+            switch (parts[0]) {
+            case ADD:
+                Task added = Task.fromFileString(record.substring(record.indexOf(SEPARATOR) + SEPARATOR.length()));
+                if (added.getId() != 0 && byId.containsKey(added.getId())) {
+                    break;
+                }
+                tasks.add(added);
+                if (added.getId() != 0) {
+                    byId.put(added.getId(), added);
+                }
+                break;
+            case DELETE:
+                Task deleted = find(parts[1]);
+                if (deleted == null) {
+                    break;
+                } else if (parts[1].trim().startsWith(ID_PREFIX)) {
+                    byId.remove(deleted.getId());
+                    removed.add(deleted);
+                } else {
+                    tasks.remove(deleted);
+                    byId.remove(deleted.getId());
+                }
+                break;
+            case MARK:
+                Task marked = find(parts[1]);
+                if (marked == null) {
+                    break;
+                } else if (parts[2].trim().equals("1")) {
+                    marked.markAsDone();
+                } else {
+                    marked.markAsNotDone();
+                }
+                break;
+            case PRIORITY:
+                Task prioritised = find(parts[1]);
+                if (prioritised != null) {
+                    prioritised.setPriority(Priority.values()[Integer.parseInt(parts[2].trim())]);
+                }
+                break;
+            default:
+                throw new PrometheusException("Unknown journal record: " + record);
+            }
+        }
+
+        /**
+         * Returns the task a record refers to, either as "#[id]" or as a legacy 0-based index.
+         * Returns null if no task has the ID, as it was already removed by a later mutation in the snapshot.
+         */
+        private Task find(String reference) throws PrometheusException {
+            reference = reference.trim();
+            if (reference.startsWith(ID_PREFIX)) {
+                return byId.get(Long.parseLong(reference.substring(ID_PREFIX.length())));
+            }
+
+            removePending();
+            int index = Integer.parseInt(reference);
+            if (index < 0 || index >= tasks.size()) {
+                throw new PrometheusException("Journal refers to missing task " + (index + 1));
+            }
+            return tasks.get(index);
+        }
+
+        void removePending() {
+            if (!removed.isEmpty()) {
+                tasks.removeIf(removed::contains);
+                removed.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package prometheus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes journal records behind the caller's back.
+ * Records are queued in memory and appended to the journal by a dedicated daemon thread at most
+ * the configured delay after the first of them was queued, so a burst of mutations costs a single write
+ * and callers never wait on the disk. A flush can also be forced, which writes everything queued
+ * on the calling thread, and one is forced when the JVM shuts down.
+ * If a background write fails, its records stay queued and are retried, and a forced flush that
+ * still cannot write them reports the failure.
+ * Compacting the journal into a snapshot can be handed to the thread as well, which writes the snapshot
+ * before the next records and then drops the records it contains.
+ */
+class JournalFlusher {
+    private final Journal journal;
+    private final long maxDelayNanos;
+    private final Thread thread;
+    private final Thread shutdownHook;
+
+    /**
+     * Held while records are written to the journal, or while the journal is replaced by a snapshot,
+     * so that records are never appended out of order or after the snapshot that contains them.
+     * Always acquired before the monitor of this object.
+     */
+    private final Object writeLock = new Object();
+
+    private List<String> pending = new ArrayList<>();
+    private long firstPendingNanos;
+    private boolean isClosed;
+
+    /**
+     * Snapshot waiting to be written in place of the journal, or null if none is, and the number of
+     * queued records at the front of {@link #pending} that it contains.
+     */
+    private SnapshotWriter requestedSnapshot;
+    private int snapshotRecords;
+
+    /**
+     * Constructs a flusher for the given journal and starts its thread.
+     *
+     * @param journal The journal to write records to
+     * @param maxDelay The longest a queued record may wait before it is written
+     */
+    JournalFlusher(Journal journal, Duration maxDelay) {
+        this.journal = journal;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.thread = new Thread(this::run, "prometheus-journal-flusher");
+        this.thread.setDaemon(true);
+        this.shutdownHook = new Thread(this::flushQuietly, "prometheus-journal-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        this.thread.start();
+    }
+
+    /**
+     * Queues records to be appended to the journal.
+     *
+     * @param records The records to append, in order
+     */
+    synchronized void submit(List<String> records) {
+        assert !isClosed : "Flusher is closed";
+        if (pending.isEmpty()) {
+            firstPendingNanos = System.nanoTime();
+            notifyAll();
+        }
+        pending.addAll(records);
+    }
+
+    /**
+     * Writes every queued record on the calling thread and waits for the write to complete.
+     *
+     * @throws IOException If the records cannot be written, in which case they stay queued
+     */
+    void flush() throws IOException {
+        synchronized (writeLock) {
+            writePending();
+        }
+    }
+
+    /**
+     * Drops every queued record and runs the given action while no records can be written.
+     * Used to replace the journal with a snapshot that already contains the queued mutations.
+     * A snapshot requested earlier is superseded and not written.
+     *
+     * @param action The action to run
+     * @throws PrometheusException If the action fails, in which case the records stay queued
+     */
+    void replaceJournal(SnapshotWriter action) throws PrometheusException {
+        synchronized (writeLock) {
+            List<String> records;
+            synchronized (this) {
+                records = pending;
+                pending = new ArrayList<>();
+                requestedSnapshot = null;
+            }
+            try {
+                action.write();
+            } catch (PrometheusException | RuntimeException e) {
+                restore(records);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Asks the flusher thread to write a snapshot in place of the journal before it writes the next records.
+     * The snapshot must contain every record queued so far, which are dropped once it is written.
+     * If it cannot be written, the failure is logged and the records are appended to the journal as usual.
+     *
+     * @param action The action that writes the snapshot
+     */
+    synchronized void requestSnapshot(SnapshotWriter action) {
+        assert !isClosed : "Flusher is closed";
+        if (pending.isEmpty() && requestedSnapshot == null) {
+            firstPendingNanos = System.nanoTime();
+            notifyAll();
+        }
+        requestedSnapshot = action;
+        snapshotRecords = pending.size();
+    }
+
+    /**
+     * Flushes every queued record and stops the flusher thread.
+     *
+     * @throws IOException If the queued records cannot be written
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                isClosed = true;
+                notifyAll();
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, and the hook will flush once more
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && requestedSnapshot == null && !isClosed) {
+                        wait();
+                    }
+                    if (isClosed) {
+                        return;
+                    }
+                    long remaining;
+                    while ((remaining = firstPendingNanos + maxDelayNanos - System.nanoTime()) > 0 && !isClosed) {
+                        wait(Math.max(1, remaining / 1_000_000));
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            synchronized (writeLock) {
+                try {
+                    writePending();
+                } catch (IOException e) {
+                    // The records stay queued, to be retried after another delay or by a forced flush
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the requested snapshot, if any, then appends every queued record to the journal in a single write.
+     * Must hold the write lock.
+     */
+    private void writePending() throws IOException {
+        writeRequestedSnapshot();
+        List<String> records;
+        synchronized (this) {
+            records = pending;
+            pending = new ArrayList<>();
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            journal.append(records);
+        } catch (IOException e) {
+            restore(records);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the requested snapshot, if any, and drops the queued records it contains. Must hold the write lock.
+     */
+    private void writeRequestedSnapshot() {
+        SnapshotWriter action;
+        int records;
+        synchronized (this) {
+            action = requestedSnapshot;
+            records = snapshotRecords;
+            requestedSnapshot = null;
+        }
+        if (action == null) {
+            return;
+        }
+
+        try {
+            action.write();
+        } catch (PrometheusException | RuntimeException e) {
+            // The records stay queued, so the journal still holds every change
+            System.err.println("Failed to compact the journal: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            pending.subList(0, records).clear();
+        }
+    }
+
+    /**
+     * Puts records that could not be written back in front of those queued since.
+     */
+    private synchronized void restore(List<String> records) {
+        if (requestedSnapshot != null) {
+            snapshotRecords += records.size();
+        }
+        records.addAll(pending);
+        pending = records;
+        firstPendingNanos = System.nanoTime();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Failed to save tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a snapshot in place of the journal.
+     */
+    @FunctionalInterface
+    interface SnapshotWriter {
+        /**
+         * Writes the snapshot.
+         *
+         * @throws PrometheusException If the snapshot cannot be written
+         */
+        void write() throws PrometheusException;
+    }
+}
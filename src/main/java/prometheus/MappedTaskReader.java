@@ -0,0 +1,174 @@
+package prometheus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import prometheus.task.Task;
+import prometheus.task.TaskDecoder;
+
+/**
+ * Reads the snapshot file by memory-mapping it and decoding each record in place.
+ * Unlike reading the file line by line, no intermediate string is built per line,
+ * so peak memory is bounded by the decoded tasks rather than twice the file contents.
+ * Large files can also be decoded in parallel, one newline-aligned chunk per pool task.
+ */
+class MappedTaskReader {
+    /**
+     * Smallest chunk worth handing to another thread.
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Chunks per pool thread, so that threads finishing early can pick up more work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Path path;
+
+    /**
+     * Constructs a reader for the given snapshot file.
+     *
+     * @param path The path of the snapshot file
+     */
+    MappedTaskReader(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Maps the file and decodes every line into a task on the calling thread.
+     *
+     * @return The decoded tasks in file order
+     * @throws IOException If the file cannot be mapped
+     * @throws PrometheusException If a line cannot be decoded, reported as "Line N: ..."
+     */
+    ArrayList<Task> read() throws IOException, PrometheusException {
+        ByteBuffer buffer = map();
+        return decodeChunk(buffer, 0, buffer.limit()).getTasks(0);
+    }
+
+    /**
+     * Maps the file and decodes it in newline-aligned chunks on the given pool.
+     * Chunks are stitched back together in file order, and the first malformed line
+     * in the file is reported with its line number in the whole file.
+     *
+     * @param pool The pool to decode chunks on
+     * @return The decoded tasks in file order
+     * @throws IOException If the file cannot be mapped
+     * @throws PrometheusException If a line cannot be decoded, reported as "Line N: ..."
+     */
+    ArrayList<Task> readParallel(ForkJoinPool pool) throws IOException, PrometheusException {
+        ByteBuffer buffer = map();
+        List<int[]> ranges = splitChunks(buffer, pool.getParallelism());
+        List<ForkJoinTask<Chunk>> futures = new ArrayList<>();
+        for (int[] range : ranges) {
+            futures.add(pool.submit(() -> decodeChunk(buffer, range[0], range[1])));
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        int taskCount = 0;
+        for (ForkJoinTask<Chunk> future : futures) {
+            Chunk chunk = future.join();
+            chunks.add(chunk);
+            taskCount += chunk.tasks.size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(taskCount);
+        int linesBefore = 0;
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.getTasks(linesBefore));
+            linesBefore += chunk.lineCount;
+        }
+        return tasks;
+    }
+
+    private ByteBuffer map() throws IOException, PrometheusException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new PrometheusException("Task file is too large to map: " + size + " bytes");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Splits the buffer into roughly equal ranges that each end just after a line separator,
+     * so that no line straddles two chunks.
+     */
+    static List<int[]> splitChunks(ByteBuffer buffer, int parallelism) {
+        int size = buffer.limit();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / Math.max(1, parallelism * CHUNKS_PER_THREAD));
+        List<int[]> ranges = new ArrayList<>();
+        int start = 0;
+        while (start < size) {
+            int end = Math.min(size, start + chunkSize);
+            while (end < size && buffer.get(end - 1) != '\n') {
+                end++;
+            }
+            ranges.add(new int[] {start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Decodes every line in a range of the buffer, stopping at the first malformed line.
+     * A line separator at the very end of the range does not start another line.
+     *
+     * @param buffer The buffer holding the file contents
+     * @param start The index of the first byte of the first line
+     * @param end The index one past the last byte of the range
+     * @return The decoded tasks together with the number of lines read
+     */
+    static Chunk decodeChunk(ByteBuffer buffer, int start, int end) {
+        Chunk chunk = new Chunk();
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            try {
+                chunk.tasks.add(TaskDecoder.decode(buffer, lineStart, lineEnd));
+            } catch (PrometheusException e) {
+                chunk.error = e;
+                return chunk;
+            }
+            chunk.lineCount++;
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * The result of decoding one chunk of the file.
+     * Line numbers within a chunk are relative, since a chunk does not know how many lines precede it.
+     */
+    static class Chunk {
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private int lineCount;
+        private PrometheusException error;
+
+        /**
+         * Returns the decoded tasks, or reports the chunk's malformed line.
+         *
+         * @param linesBefore The number of lines in the file before this chunk
+         * @return The decoded tasks
+         * @throws PrometheusException If the chunk contains a malformed line
+         */
+        ArrayList<Task> getTasks(int linesBefore) throws PrometheusException {
+            if (error != null) {
+                int lineNumber = linesBefore + lineCount + 1;
+                throw new PrometheusException("Line " + lineNumber + ": " + error.getMessage());
+            }
+            return tasks;
+        }
+    }
+}
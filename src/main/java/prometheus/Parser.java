@@ -1,13 +1,18 @@
 package prometheus;
 
 import prometheus.command.AddCommand;
+import prometheus.command.AgendaCommand;
+import prometheus.command.BatchCommand;
 import prometheus.command.Command;
 import prometheus.command.DeleteCommand;
 import prometheus.command.ExitCommand;
+import prometheus.command.ExportCommand;
 import prometheus.command.FindCommand;
+import prometheus.command.ImportCommand;
 import prometheus.command.ListCommand;
 import prometheus.command.MarkCommand;
 import prometheus.command.PriorityCommand;
+import prometheus.command.TopCommand;
 import prometheus.command.WelcomeCommand;
 
 /**
@@ -22,12 +27,17 @@ public class Parser {
      * The command format should be: commandWord [arguments]
      * Supported commands:
      * - bye: Exit the application
-     * - list: Show all tasks
-     * - mark/unmark [index]: Mark or unmark a task as done
+     * - list [high/medium/low]: Show all tasks, or only those with the given priority
+     * - top [count]: Show the highest priority tasks
+     * - mark/unmark [indices]: Mark or unmark tasks as done, e.g. "mark 1-500"
      * - todo [description]: Add a todo task
      * - deadline [description] /by [time]: Add a deadline task
      * - event [description] /from [start] /to [end]: Add an event task
-     * - delete [index]: Delete a task
+     * - delete [indices]: Delete tasks, e.g. "delete 3,7,9"
+     * - priority [indices] [high/medium/low]: Set the priority of tasks, e.g. "priority 1..50 high"
+     * - batch { [command]; [command]; ... }: Run several commands as one transaction
+     * - agenda/due [today/week/start /to end]: Show deadlines and events within a time range
+     * - import/export [file]: Load tasks from, or write them to, a .csv or .jsonl file
      *
      * @param fullCommand The complete command string to parse
      * @return A Command object corresponding to the input command
@@ -47,7 +57,8 @@ public class Parser {
         return switch (commandWord) {
         case "welcome" -> new WelcomeCommand();
         case "bye" -> new ExitCommand();
-        case "list" -> new ListCommand();
+        case "list" -> new ListCommand(arguments);
+        case "top" -> new TopCommand(arguments);
         case "mark" -> new MarkCommand(arguments, true);
         case "unmark" -> new MarkCommand(arguments, false);
         case "todo" -> new AddCommand("todo", arguments);
@@ -56,6 +67,10 @@ public class Parser {
         case "delete" -> new DeleteCommand(arguments);
         case "find" -> new FindCommand(arguments);
         case "priority" -> new PriorityCommand( arguments);
+        case "agenda", "due" -> new AgendaCommand(arguments);
+        case "batch" -> new BatchCommand(arguments);
+        case "import" -> new ImportCommand(arguments);
+        case "export" -> new ExportCommand(arguments);
         default -> throw new PrometheusException("Unknown command: " + commandWord);
         };
     }
@@ -1,6 +1,14 @@
 package prometheus;
 
-import prometheus.command.Command;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+
+import prometheus.command.CommandResult;
 
 /**
  * A command-line chatbot that manages a task list with various operations.
@@ -10,6 +18,17 @@ import prometheus.command.Command;
  * @author Prometheus
  */
 public class Prometheus {
+    /**
+     * Longest time a change may wait before it is written to storage, in milliseconds,
+     * unless overridden by the "prometheus.flushDelayMillis" system property. Zero writes every change at once.
+     */
+    private static final long DEFAULT_FLUSH_DELAY_MILLIS = 200;
+
+    /**
+     * Size of the buffers between the pipelined mode and its input and output.
+     */
+    private static final int PIPELINE_BUFFER_SIZE = 1 << 16;
+
     private final Storage storage;
     private TaskList tasks;
     private final Ui ui;
@@ -18,6 +37,7 @@ public class Prometheus {
      * Constructs a new Prometheus chatbot instance.
      * Initializes the UI, storage, and task list components.
      * Attempts to load existing tasks from storage, creating an empty list if loading fails.
+     * Changes are written to storage in the background, so commands do not wait on the disk.
      *
      * @param filePath The path to the file where tasks are stored
      */
@@ -25,6 +45,8 @@ public class Prometheus {
         ui = new Ui();
         storage = new Storage(filePath);
         try {
+            storage.setWriteBehind(Duration.ofMillis(Long.getLong("prometheus.flushDelayMillis",
+                    DEFAULT_FLUSH_DELAY_MILLIS)));
             tasks = new TaskList(storage.load());
         } catch (PrometheusException e) {
             ui.showError("Error loading tasks: " + e.getMessage());
@@ -34,50 +56,124 @@ public class Prometheus {
 
     /**
      * Starts the main interaction loop of the chatbot.
-     * Continuously reads user commands and executes them until an exit command is received.
-     * Handles and displays any errors that occur during command execution.
+     * Continuously reads user commands, executes them and prints their results until an exit command
+     * is received or the input ends. Errors that occur during command execution are printed too.
      */
     public void run() {
+        run(ui);
+    }
+
+    /**
+     * Runs the main interaction loop over the given streams instead of standard input and output.
+     *
+     * @param in The stream commands are read from
+     * @param out The stream results are printed to
+     */
+    public void run(InputStream in, PrintStream out) {
+        run(new Ui(in, out));
+    }
+
+    private void run(Ui ui) {
         ui.showWelcome();
         boolean isExit = false;
 
         while (!isExit) {
+            String fullCommand = ui.readCommand();
+            if (fullCommand == null) {
+                break;
+            }
+            CommandResult result = execute(fullCommand);
+            ui.show(result);
+            isExit = result.getKind() == CommandResult.Kind.EXIT;
+        }
+    }
+
+    /**
+     * Runs every command in the input non-interactively and prints the same output as {@link #run()}.
+     * Lines are read and parsed ahead on separate threads while commands execute in order on the calling
+     * thread, and output is buffered. Nothing is written to storage until the input ends or an exit
+     * command is received, at which point every change is saved as one snapshot.
+     *
+     * @param in The stream commands are read from
+     * @param out The stream results are printed to
+     */
+    public void runPipelined(InputStream in, OutputStream out) {
+        PrintStream printer = new PrintStream(new BufferedOutputStream(out, PIPELINE_BUFFER_SIZE), false);
+        Ui output = new Ui(InputStream.nullInputStream(), printer);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in), PIPELINE_BUFFER_SIZE);
+        output.showWelcome();
+
+        storage.deferWrites();
+        try (CommandPipeline pipeline = new CommandPipeline(reader)) {
+            for (CommandPipeline.ParsedCommand command = pipeline.next(); command != null;
+                    command = pipeline.next()) {
+                CommandResult result = command.execute(tasks, storage);
+                output.show(result);
+                if (result.getKind() == CommandResult.Kind.EXIT) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
             try {
-                String fullCommand = ui.readCommand();
-                Command command = Parser.parse(fullCommand);
-                command.execute(tasks, ui, storage);
-                isExit = command.isExit();
+                storage.writeDeferred(tasks);
             } catch (PrometheusException e) {
-                ui.showError(e.getMessage());
+                output.showError(e.getMessage());
             }
+            printer.flush();
+        }
+    }
+
+    /**
+     * Confines the files the import and export commands use to a "transfers" directory next to the task file,
+     * for when commands come from other programs that should not reach files elsewhere.
+     */
+    public void confineTransfers() {
+        storage.confineTransfers();
+    }
+
+    /**
+     * Processes a single command and returns its result.
+     * This method parses the input and executes the command, describing any failure as an error result.
+     * It can be called from several threads at once.
+     *
+     * @param input The command input string to process
+     * @return The result of executing the command
+     */
+    public CommandResult execute(String input) {
+        try {
+            return Parser.parse(input).execute(tasks, storage);
+        } catch (PrometheusException e) {
+            return CommandResult.error(e.getMessage());
         }
     }
 
     /**
      * Processes a single command and returns the response.
-     * This method parses the input, executes the command, and returns the output
+     * This method parses the input, executes the command, and returns the rendered result
      * or an error message if the command execution fails.
      *
      * @param input The command input string to process
      * @return The response message from executing the command
      */
     public String getResponse(String input) {
-        try {
-            Command command = Parser.parse(input);
-            command.execute(tasks, ui, storage);
-            return ui.getLastOutput();
-        } catch (PrometheusException e) {
-            return "Error! " + e.getMessage();
-        }
+        return execute(input).render();
     }
 
     /**
      * The main entry point of the application.
-     * Creates a new Prometheus instance and starts the interaction loop.
+     * Creates a new Prometheus instance and starts the interaction loop,
+     * or runs the commands from standard input in pipelined mode if started with "--pipeline".
      *
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments, optionally "--pipeline"
      */
     public static void main(String[] args) {
-        new Prometheus("./data/Prometheus.txt").run();
+        Prometheus prometheus = new Prometheus("./data/Prometheus.txt");
+        if (args.length > 0 && args[0].equals("--pipeline")) {
+            prometheus.runPipelined(System.in, System.out);
+        } else {
+            prometheus.run();
+        }
     }
 }
\ No newline at end of file
@@ -1,35 +1,270 @@
 package prometheus;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import prometheus.task.BinaryTaskCodec;
 import prometheus.task.Task;
 
 /**
  * Handles the persistence of tasks to and from a file storage.
- * This class manages reading and writing task data to a specified file path,
- * allowing the application to maintain task data between sessions.
+ * Tasks are kept in a snapshot file and an append-only journal next to it. Each mutation appends
+ * one journal record, and the journal is periodically compacted into a fresh snapshot so that
+ * neither file grows without bound. The snapshot can be written as text or in a compact binary
+ * format, while journal records are always text.
+ * Writes can also be deferred altogether, for scripted input where the whole list is saved once at the end.
+ * Mutations made within a batch are held back and appended to the journal in a single write
+ * when the batch is committed, or dropped if it is rolled back.
+ * In write-behind mode, journal records are handed to a {@link JournalFlusher}, which writes them
+ * on its own thread shortly afterwards, so callers do not wait on the disk.
+ * A storage handler is not thread-safe by itself. Commands record mutations within a transaction on
+ * the task list, whose write lock ensures that only one thread uses the handler at a time.
  */
 public class Storage {
+    /**
+     * Minimum number of journal records before a compaction is considered.
+     */
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * Size of the buffer snapshots are written through, large enough that a snapshot takes few system calls.
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Strategies for reading the snapshot file.
+     */
+    public enum LoadMode {
+        /** Reads the whole file into a list of lines before decoding them. */
+        LINES,
+        /** Memory-maps the file and decodes records in place without building line strings. */
+        MAPPED,
+        /** Memory-maps the file and decodes newline-aligned chunks of it on the common ForkJoinPool. */
+        PARALLEL
+    }
+
+    /**
+     * Formats the snapshot file can be written in. Both are recognised when loading.
+     */
+    public enum Format {
+        /** One human-readable line per task, as produced by {@link Task#toFileString()}. */
+        TEXT,
+        /** The compact binary format of {@link BinaryTaskCodec}. */
+        BINARY
+    }
+
     private final String filePath;
+    private final Journal journal;
+    private int journalSize;
+
+    /**
+     * Records of the open batch, or null if no batch is open.
+     */
+    private List<String> pendingRecords;
+
+    /**
+     * Writes journal records in the background in write-behind mode, or null if records are written at once.
+     */
+    private JournalFlusher flusher;
+
+    /**
+     * Whether mutations are only noted, to be saved as one snapshot by {@link #writeDeferred(TaskList)}.
+     */
+    private boolean isDeferred;
+    private boolean hasDeferredChanges;
+    private LoadMode loadMode;
+    private Format format;
+
+    /**
+     * Directory that tasks may be imported from and exported to, or null if files anywhere may be used.
+     */
+    private Path transferDirectory;
 
     /**
      * Constructs a new Storage instance with the specified file path.
+     * The journal is kept in a sibling file with a ".journal" suffix.
      *
      * @param filePath The path to the file where tasks will be stored
      */
     public Storage(String filePath) {
         this.filePath = filePath;
+        this.journal = filePath == null ? null : new Journal(Paths.get(filePath + ".journal"));
+        this.journalSize = 0;
+        this.loadMode = LoadMode.LINES;
+        this.format = Format.TEXT;
+    }
+
+    /**
+     * Sets the strategy used by {@link #load()} to read the snapshot file.
+     *
+     * @param loadMode The strategy to use
+     */
+    public void setLoadMode(LoadMode loadMode) {
+        assert loadMode != null : "Load mode cannot be null";
+        this.loadMode = loadMode;
+    }
+
+    /**
+     * Sets the format snapshots are written in.
+     * A snapshot found in the other format is still loaded, and is rewritten
+     * in this format as part of the load.
+     *
+     * @param format The format to write
+     */
+    public void setFormat(Format format) {
+        assert format != null : "Format cannot be null";
+        this.format = format;
+    }
+
+    /**
+     * Switches write-behind mode on or off. With a positive maximum delay, journal records are written by
+     * a background thread at most that long after they are recorded, coalescing bursts of mutations into
+     * a single write. Records still waiting are written by {@link #flush()} and when the JVM shuts down.
+     * With a null or zero delay, every record is written before the mutation that produced it returns.
+     *
+     * @param maxDelay The longest a record may wait before it is written, or null to write records at once
+     * @throws PrometheusException If records waiting under a previous setting cannot be written
+     */
+    public void setWriteBehind(Duration maxDelay) throws PrometheusException {
+        close();
+        if (maxDelay != null && !maxDelay.isNegative() && !maxDelay.isZero()) {
+            flusher = new JournalFlusher(journal, maxDelay);
+        }
+    }
+
+    /**
+     * Writes every journal record still waiting in write-behind mode, and waits until they are written.
+     * Does nothing when records are written at once.
+     *
+     * @throws PrometheusException If the records cannot be written
+     */
+    public void flush() throws PrometheusException {
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.flush();
+        } catch (IOException e) {
+            throw new PrometheusException("Failed to save tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every journal record still waiting and leaves write-behind mode.
+     *
+     * @throws PrometheusException If the records cannot be written
+     */
+    public void close() throws PrometheusException {
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.close();
+        } catch (IOException e) {
+            throw new PrometheusException("Failed to save tasks: " + e.getMessage());
+        } finally {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Confines the files that tasks are imported from and exported to to a "transfers" directory
+     * next to the storage file, created when first needed. File names are then resolved inside it,
+     * and names that lead out of it are refused.
+     */
+    public void confineTransfers() {
+        assert filePath != null : "Transfers can only be confined next to a storage file";
+        transferDirectory = Paths.get(filePath).toAbsolutePath().normalize().resolveSibling("transfers");
+    }
+
+    /**
+     * Resolves the name of a file to import tasks from or export them to.
+     * Once transfers are {@link #confineTransfers() confined}, the name must be a relative path that
+     * stays inside the transfer directory, even through symbolic links.
+     *
+     * @param fileName The name of the file as given in the command
+     * @return The path of the file
+     * @throws PrometheusException If the name is not a valid path, or leads out of the transfer directory
+     */
+    public Path resolveTransferFile(String fileName) throws PrometheusException {
+        Path path;
+        try {
+            path = Paths.get(fileName);
+        } catch (InvalidPathException e) {
+            throw new PrometheusException("Invalid file name: " + fileName);
+        }
+        if (transferDirectory == null) {
+            return path;
+        }
+
+        Path resolved = transferDirectory.resolve(path).normalize();
+        if (path.isAbsolute() || !resolved.startsWith(transferDirectory)) {
+            throw new PrometheusException("Files can only be imported from and exported to " + transferDirectory);
+        }
+        try {
+            Files.createDirectories(transferDirectory);
+            Path realDirectory = transferDirectory.toRealPath();
+            Path existing = Files.exists(resolved) ? resolved : resolved.getParent();
+            if (Files.exists(existing) && !existing.toRealPath().startsWith(realDirectory)) {
+                throw new PrometheusException("Files can only be imported from and exported to " + transferDirectory);
+            }
+        } catch (IOException e) {
+            throw new PrometheusException("Could not open " + transferDirectory + ": " + e.getMessage());
+        }
+        return resolved;
+    }
+
+    /**
+     * Stops writing journal records until {@link #writeDeferred(TaskList)} is called, which saves every
+     * mutation made in the meantime as one snapshot. Mutations made before then are lost if the program
+     * stops without calling it.
+     */
+    public void deferWrites() {
+        isDeferred = true;
+    }
+
+    /**
+     * Saves the task list if it has changed since writes were deferred, and resumes writing journal records.
+     *
+     * @param tasks The task list to save
+     * @throws PrometheusException If there's an error writing to the file
+     */
+    public void writeDeferred(TaskList tasks) throws PrometheusException {
+        isDeferred = false;
+        if (hasDeferredChanges) {
+            hasDeferredChanges = false;
+            save(tasks);
+        }
     }
 
     /**
      * Loads tasks from the storage file into memory.
      * If the file doesn't exist, returns an empty task list.
-     * Each line in the file is converted to a Task object.
+     * A binary snapshot is recognised by its header. Otherwise each line in the snapshot is
+     * converted to a Task object using the configured {@link LoadMode}. The journal is then
+     * replayed over the loaded tasks. Tasks stored without an ID, as by older versions, are given one
+     * and written back at once, so that later journal records can refer to them.
      *
      * @return ArrayList of Task objects loaded from the file
      * @throws PrometheusException If there's an error reading the file or parsing its contents
@@ -38,19 +273,20 @@ public class Storage {
         ArrayList<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
 
-        if (!file.exists()) {
-            return tasks;
-        }
-
         try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            for (int i = 0; i < lines.size(); i++) {
-                try {
-                    Task task = Task.fromFileString(lines.get(i));
-                    tasks.add(task);
-                } catch (PrometheusException e) {
-                    throw new PrometheusException("Line " + (i + 1) + ": " + e.getMessage());
-                }
+            Format storedFormat = format;
+            if (file.exists()) {
+                storedFormat = detectFormat(file);
+                tasks = storedFormat == Format.BINARY ? readBinary(file) : switch (loadMode) {
+                case LINES -> readLines();
+                case MAPPED -> new MappedTaskReader(file.toPath()).read();
+                case PARALLEL -> new MappedTaskReader(file.toPath()).readParallel(ForkJoinPool.commonPool());
+                };
+            }
+            journalSize = journal.replay(tasks);
+            boolean hasNewIds = TaskList.assignIds(tasks);
+            if (storedFormat != format || hasNewIds) {
+                writeSnapshot(tasks);
             }
             return tasks;
         } catch (IOException e) {
@@ -58,9 +294,38 @@ public class Storage {
         }
     }
 
+    private static Format detectFormat(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = new byte[4];
+            int length = in.readNBytes(header, 0, header.length);
+            return BinaryTaskCodec.hasMagic(header, length) ? Format.BINARY : Format.TEXT;
+        }
+    }
+
+    private static ArrayList<Task> readBinary(File file) throws IOException, PrometheusException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return BinaryTaskCodec.read(in);
+        }
+    }
+
+    private ArrayList<Task> readLines() throws IOException, PrometheusException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        List<String> lines = Files.readAllLines(Paths.get(filePath));
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                Task task = Task.fromFileString(lines.get(i));
+                tasks.add(task);
+            } catch (PrometheusException e) {
+                throw new PrometheusException("Line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
     /**
-     * Saves the current list of tasks to the storage file.
-     * Overwrites any existing data in the file.
+     * Saves the current list of tasks to the storage file as a new snapshot.
+     * Atomically replaces any existing data in the file and discards the journal, whose
+     * records are now contained in the snapshot.
      *
      * @param tasks The TaskList object containing tasks to be saved
      * @throws PrometheusException If there's an error writing to the file
@@ -68,21 +333,202 @@ public class Storage {
     public void save(TaskList tasks) throws PrometheusException {
         assert tasks != null : "TaskList cannot be null";
         assert filePath != null : "File path cannot be null";
+        writeSnapshot(tasks.getAllTasks());
+    }
+
+    private void writeSnapshot(List<Task> tasks) throws PrometheusException {
+        if (flusher != null) {
+            // Records still waiting are already part of the snapshot, so they are dropped rather than written
+            flusher.replaceJournal(() -> writeSnapshotFile(tasks));
+        } else {
+            writeSnapshotFile(tasks);
+        }
+        journalSize = 0;
+    }
+
+    /**
+     * Writes the snapshot so that a crash at any point leaves either the old or the new snapshot in place.
+     * The tasks are streamed through a large buffer into a sibling temporary file, which is forced to disk
+     * and then atomically moved over the snapshot. Text records are copied from each task's cached encoding,
+     * so only tasks changed since the last save are encoded again.
+     * The journal is only cleared once the move has happened.
+     */
+    private void writeSnapshotFile(List<Task> tasks) throws PrometheusException {
+        createParentDirectory();
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
-            File directory = new File("./data/");
-            if (!directory.exists() && !directory.mkdirs()) {
-                throw new PrometheusException("Failed to create directory: " + directory.getPath());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                if (format == Format.BINARY) {
+                    BinaryTaskCodec.write(tasks, new DataOutputStream(out));
+                } else {
+                    byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+                    for (int i = 0; i < tasks.size(); i++) {
+                        Task task = tasks.get(i);
+                        assert task != null : "Task at index " + i + " cannot be null";
+                        out.write(task.toFileBytes());
+                        out.write(lineSeparator);
+                    }
+                }
+                out.flush();
+                channel.force(true);
             }
+            moveAtomically(temp, target);
+            journal.clear();
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException deleteError) {
+                e.addSuppressed(deleteError);
+            }
+            throw new PrometheusException("Failed to save tasks: " + e.getMessage());
+        }
+    }
 
-            try (FileWriter writer = new FileWriter(filePath)) {
-                for (int i = 0; i < tasks.size(); i++) {
-                    Task task = tasks.get(i);
-                    assert task != null : "Task at index " + i + " cannot be null";
-                    writer.write(task.toFileString() + System.lineSeparator());
-                }
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // Makes the rename itself durable. Directories cannot be opened for syncing on every platform.
+        try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // The snapshot is complete either way; only the rename may be lost if the system crashes now
+        }
+    }
+
+    /**
+     * Records that a task was appended to the end of the list.
+     *
+     * @param tasks The task list after the task was added
+     * @param task The task that was added
+     * @throws PrometheusException If there's an error writing to the journal
+     */
+    public void recordAdd(TaskList tasks, Task task) throws PrometheusException {
+        record(tasks, Journal.addRecord(task));
+    }
+
+    /**
+     * Records that a task was removed from the list.
+     *
+     * @param tasks The task list after the task was removed
+     * @param task The task that was removed
+     * @throws PrometheusException If there's an error writing to the journal
+     */
+    public void recordDelete(TaskList tasks, Task task) throws PrometheusException {
+        record(tasks, Journal.deleteRecord(task));
+    }
+
+    /**
+     * Records that a task was marked as done or not done.
+     *
+     * @param tasks The task list containing the task
+     * @param task The task, holding its new completion status
+     * @throws PrometheusException If there's an error writing to the journal
+     */
+    public void recordMark(TaskList tasks, Task task) throws PrometheusException {
+        record(tasks, Journal.markRecord(task));
+    }
+
+    /**
+     * Records that the priority of a task was changed.
+     *
+     * @param tasks The task list containing the task
+     * @param task The task, holding its new priority
+     * @throws PrometheusException If there's an error writing to the journal
+     */
+    public void recordPriority(TaskList tasks, Task task) throws PrometheusException {
+        record(tasks, Journal.priorityRecord(task));
+    }
+
+    /**
+     * Starts a batch. Records of the mutations that follow are kept in memory until the batch ends.
+     */
+    public void beginBatch() {
+        assert pendingRecords == null : "Batches cannot be nested";
+        pendingRecords = new ArrayList<>();
+    }
+
+    /**
+     * Ends the open batch by appending all of its records to the journal in a single write.
+     *
+     * @param tasks The task list after every mutation in the batch
+     * @throws PrometheusException If there's an error writing to the journal
+     */
+    public void commitBatch(TaskList tasks) throws PrometheusException {
+        assert pendingRecords != null : "No batch is open";
+        List<String> records = pendingRecords;
+        pendingRecords = null;
+        if (!records.isEmpty()) {
+            append(tasks, records);
+        }
+    }
+
+    /**
+     * Ends the open batch, if any, discarding its records.
+     */
+    public void rollbackBatch() {
+        pendingRecords = null;
+    }
+
+    private void record(TaskList tasks, String record) throws PrometheusException {
+        if (pendingRecords != null) {
+            pendingRecords.add(record);
+        } else {
+            append(tasks, List.of(record));
+        }
+    }
+
+    /**
+     * Appends records to the journal, compacting it into a new snapshot once it has grown
+     * as large as the task list itself. Tying the threshold to the list size keeps the
+     * amortised cost of each mutation constant. In write-behind mode the snapshot is written
+     * by the flusher thread, so the caller does not wait for it.
+     */
+    private void append(TaskList tasks, List<String> records) throws PrometheusException {
+        assert tasks != null : "TaskList cannot be null";
+        assert filePath != null : "File path cannot be null";
+        if (isDeferred) {
+            hasDeferredChanges = true;
+            return;
+        }
+        try {
+            createParentDirectory();
+            if (flusher != null) {
+                flusher.submit(records);
+            } else {
+                journal.append(records);
             }
+            journalSize += records.size();
         } catch (IOException e) {
             throw new PrometheusException("Failed to save tasks: " + e.getMessage());
         }
+
+        if (journalSize >= Math.max(MIN_COMPACTION_THRESHOLD, tasks.size())) {
+            if (flusher != null) {
+                List<Task> snapshot = tasks.snapshot();
+                flusher.requestSnapshot(() -> writeSnapshotFile(snapshot));
+                journalSize = 0;
+                return;
+            }
+            try {
+                save(tasks);
+            } catch (PrometheusException e) {
+                // The records are already in the journal, so the change stands and compaction is retried next time
+                System.err.println("Failed to compact the journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void createParentDirectory() throws PrometheusException {
+        File directory = new File(filePath).getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new PrometheusException("Failed to create directory: " + directory.getPath());
+        }
     }
 }
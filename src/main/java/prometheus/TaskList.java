@@ -1,31 +1,126 @@
 package prometheus;
 
+import prometheus.index.PriorityIndex;
+import prometheus.index.TaskOrder;
+import prometheus.index.TimeIndex;
+import prometheus.index.TrigramIndex;
+import prometheus.task.Priority;
 import prometheus.task.Task;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Manages a collection of tasks in the Prometheus application.
  * This class provides operations for adding, removing, and accessing tasks
  * in the task list, as well as utility methods for checking the list's state.
+ * A trigram index over the task descriptions, a time index over the deadlines and events
+ * and per-priority buckets are kept up to date as tasks change, so that searches do not
+ * need to scan the whole list.
+ * Every task is given an ID when it is added, one greater than any ID given before, so IDs increase
+ * in list order and can be used to sort index results. Tasks can be looked up by ID in constant time,
+ * and by position, or removed from a position, in logarithmic time.
+ * Changes can be grouped into a transaction, which keeps an undo action for each change
+ * so that the whole group can be rolled back if any part of it fails.
+ * The list can be shared between threads. Changes are made one writer at a time under a write lock,
+ * which a transaction holds until it ends, so other threads never see it half done. Lookups and searches
+ * take a read lock and run in parallel with each other. Listing and iterating read an immutable snapshot
+ * of the list order instead, which is rebuilt lazily after a change, so they never wait for another thread's
+ * change in progress. Meanwhile they see the last snapshot taken, which may predate changes already
+ * completed by other threads but always includes the calling thread's own completed changes.
+ * Lookups and searches do not wait for a change in progress either: while one is, they scan that snapshot
+ * instead of using the indexes.
  */
-public class TaskList {
-    private ArrayList<Task> tasks;
+public class TaskList implements Iterable<Task> {
+    private static final Comparator<Task> LIST_ORDER = Comparator.comparingLong(Task::getId);
+
+    private final TaskOrder tasks = new TaskOrder();
+    private final Map<Long, Task> tasksById = new HashMap<>();
+    private long nextId = 1;
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final TimeIndex timeIndex = new TimeIndex();
+    private final PriorityIndex priorityIndex = new PriorityIndex(LIST_ORDER);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The number of changes completed so far. Only incremented while the write lock is held.
+     */
+    private volatile long version;
+
+    /**
+     * The latest snapshot of the list order. Only replaced while a lock is held and the version cannot change,
+     * so a snapshot can never be replaced by an older one.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Whether a reader found the snapshot out of date while a change was in progress,
+     * in which case the writer takes a new snapshot as soon as it is done.
+     */
+    private volatile boolean isSnapshotWanted;
+
+    /**
+     * The version after the last change completed by each thread, which its snapshots must include.
+     */
+    private final ThreadLocal<Long> lastOwnVersion = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Undo actions of the open transaction, most recent first, or null if no transaction is open.
+     * Only accessed by the thread holding the write lock.
+     */
+    private Deque<Runnable> undoLog;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        tasks = new ArrayList<>();
+        snapshot = new Snapshot(List.of(), version);
     }
 
     /**
      * Constructs a TaskList with an existing list of tasks.
+     * Tasks without an ID, or whose ID is not greater than that of the task before them, are given a new one.
      *
      * @param tasks The ArrayList of tasks to initialize with
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+        assignIds(tasks);
+        for (Task task : tasks) {
+            index(task);
+        }
+        snapshot = new Snapshot(Collections.unmodifiableList(this.tasks.toList()), version);
+    }
+
+    /**
+     * Gives a new ID to each task that has none, or whose ID is not greater than that of the task before it,
+     * so that IDs are unique and increase in list order.
+     *
+     * @param tasks The tasks in list order
+     * @return true if any task was given a new ID
+     */
+    static boolean assignIds(List<Task> tasks) {
+        boolean hasChanged = false;
+        long lastId = 0;
+        for (Task task : tasks) {
+            if (task.getId() <= lastId) {
+                task.setId(lastId + 1);
+                hasChanged = true;
+            }
+            lastId = task.getId();
+        }
+        return hasChanged;
     }
 
     /**
@@ -36,7 +131,48 @@ public class TaskList {
     public void add(Task task) {
         assert task != null : "Cannot add null task";
         assert tasks != null : "Task list cannot be null";
-        tasks.add(task);
+        lockWrite();
+        try {
+            if (task.getId() < nextId) {
+                task.setId(nextId);
+            }
+            index(task);
+            logUndo(() -> {
+                tasks.remove(tasks.positionOf(task.getId()));
+                unindex(task);
+            });
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Adds new tasks to the end of the list in the given order, indexing each of them once.
+     * Within a transaction the whole group is undone by a single action.
+     *
+     * @param newTasks The tasks to be added
+     */
+    public void addAll(List<Task> newTasks) {
+        assert newTasks != null : "Cannot add null tasks";
+        lockWrite();
+        try {
+            for (Task task : newTasks) {
+                assert task != null : "Cannot add null task";
+                if (task.getId() < nextId) {
+                    task.setId(nextId);
+                }
+                index(task);
+            }
+            logUndo(() -> {
+                for (int i = newTasks.size() - 1; i >= 0; i--) {
+                    Task task = newTasks.get(i);
+                    tasks.remove(tasks.positionOf(task.getId()));
+                    unindex(task);
+                }
+            });
+        } finally {
+            unlockWrite();
+        }
     }
 
     /**
@@ -49,12 +185,38 @@ public class TaskList {
     public Task remove(int index) throws PrometheusException {
         assert index >= 0 : "Index cannot be negative";
         assert tasks != null : "Task list cannot be null";
-        assert !tasks.isEmpty() : "Cannot remove from empty list";
+        lockWrite();
+        try {
+            assert !isEmpty() : "Cannot remove from empty list";
+            if (index < 0 || index >= tasks.size()) {
+                throw new PrometheusException("Invalid task index!");
+            }
+            Task task = tasks.remove(index);
+            unindex(task);
+            logUndo(() -> {
+                tasks.restore(task);
+                addToIndexes(task);
+            });
+            return task;
+        } finally {
+            unlockWrite();
+        }
+    }
 
-        if (index < 0 || index >= tasks.size()) {
-            throw new PrometheusException("Invalid task index!");
+    /**
+     * Removes and returns the task with the specified ID.
+     *
+     * @param id The ID of the task to remove
+     * @return The removed task
+     * @throws PrometheusException If no task has the ID
+     */
+    public Task removeById(long id) throws PrometheusException {
+        lockWrite();
+        try {
+            return remove(indexOf(getById(id)));
+        } finally {
+            unlockWrite();
         }
-        return tasks.remove(index);
     }
 
     /**
@@ -67,19 +229,142 @@ public class TaskList {
     public Task get(int index) throws PrometheusException {
         assert index >= 0 : "Index cannot be negative";
         assert tasks != null : "Task list cannot be null";
-        assert !tasks.isEmpty() : "Cannot get from empty list";
-        if (index < 0 || index >= tasks.size()) {
+        assert !isEmpty() : "Cannot get from empty list";
+        Task task = read(() -> index >= 0 && index < tasks.size() ? tasks.get(index) : null,
+                snapshot -> index >= 0 && index < snapshot.size() ? snapshot.get(index) : null);
+        if (task == null) {
             throw new PrometheusException("Invalid task index!");
         }
-        return tasks.get(index);
+        return task;
     }
+
+    /**
+     * Returns the task with the specified ID.
+     *
+     * @param id The ID of the task to retrieve
+     * @return The task with the ID
+     * @throws PrometheusException If no task has the ID
+     */
+    public Task getById(long id) throws PrometheusException {
+        Task task = read(() -> tasksById.get(id), snapshot -> {
+            int position = positionOf(snapshot, id);
+            return position < 0 ? null : snapshot.get(position);
+        });
+        if (task == null) {
+            throw new PrometheusException("There is no task with ID " + id + "!");
+        }
+        return task;
+    }
+
+    /**
+     * Returns the current index of a task in the list.
+     *
+     * @param task The task to look up
+     * @return The 0-based index of the task, or -1 if it is not in the list
+     */
+    public int indexOf(Task task) {
+        return read(() -> tasksById.get(task.getId()) == task ? tasks.positionOf(task.getId()) : -1, snapshot -> {
+            int position = positionOf(snapshot, task.getId());
+            return position >= 0 && snapshot.get(position) == task ? position : -1;
+        });
+    }
+
+    /**
+     * Changes the priority of the task at the specified index.
+     * Priorities must be changed through the list rather than the task so that the priority buckets stay current.
+     *
+     * @param index The index of the task to update
+     * @param priority The new priority
+     * @return The updated task
+     * @throws PrometheusException If the index is out of bounds
+     */
+    public Task setPriority(int index, Priority priority) throws PrometheusException {
+        lockWrite();
+        try {
+            Task task = get(index);
+            Priority oldPriority = task.getPriority();
+            priorityIndex.setPriority(task, priority);
+            logUndo(() -> priorityIndex.setPriority(task, oldPriority));
+            return task;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done or not done.
+     *
+     * @param index The index of the task to update
+     * @param isDone The new completion status
+     * @return The updated task
+     * @throws PrometheusException If the index is out of bounds
+     */
+    public Task setDone(int index, boolean isDone) throws PrometheusException {
+        lockWrite();
+        try {
+            Task task = get(index);
+            boolean wasDone = task.isDone();
+            setDone(task, isDone);
+            logUndo(() -> setDone(task, wasDone));
+            return task;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Starts a transaction. Every change made until it is committed or rolled back can be undone.
+     * The calling thread holds the write lock until the transaction ends, so no other thread
+     * can change the list or see the transaction's changes before then.
+     */
+    public void beginTransaction() {
+        lockWrite();
+        assert undoLog == null : "Transactions cannot be nested";
+        undoLog = new ArrayDeque<>();
+    }
+
+    /**
+     * Ends the open transaction, keeping its changes.
+     */
+    public void commitTransaction() {
+        assert isInTransaction() : "No transaction is open";
+        undoLog = null;
+        unlockWrite();
+    }
+
+    /**
+     * Ends the open transaction, undoing its changes in reverse order.
+     * Task IDs handed out during the transaction are not reused.
+     */
+    public void rollbackTransaction() {
+        assert isInTransaction() : "No transaction is open";
+        Deque<Runnable> actions = undoLog;
+        undoLog = null;
+        try {
+            while (!actions.isEmpty()) {
+                actions.pop().run();
+            }
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Returns whether the calling thread has a transaction open.
+     *
+     * @return true if the calling thread's changes are currently being recorded for rollback
+     */
+    public boolean isInTransaction() {
+        return lock.isWriteLockedByCurrentThread() && undoLog != null;
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
      * @return The size of the task list
      */
     public int size() {
-        return tasks.size();
+        return read(tasks::size, List::size);
     }
 
     /**
@@ -88,7 +373,64 @@ public class TaskList {
      * @return true if the list contains no tasks, false otherwise
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return size() == 0;
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, ignoring case, in list order.
+     *
+     * @param keyword The keyword to search for
+     * @return The matching tasks
+     */
+    public List<Task> find(String keyword) {
+        String lowercased = keyword.toLowerCase();
+        return read(() -> {
+            List<Task> result = new ArrayList<>(trigramIndex.find(lowercased, tasks));
+            result.sort(LIST_ORDER);
+            return result;
+        }, snapshot -> TrigramIndex.scan(lowercased, snapshot));
+    }
+
+    /**
+     * Returns the deadlines due and the events taking place within the closed range [start, end],
+     * in chronological order of their due or start times.
+     *
+     * @param start The start of the range
+     * @param end The end of the range
+     * @return The scheduled tasks
+     */
+    public List<Task> findScheduled(LocalDateTime start, LocalDateTime end) {
+        List<Task> result = read(() -> timeIndex.find(start, end), snapshot -> TimeIndex.scan(start, end, snapshot));
+        result.sort(Comparator.comparing(TimeIndex::startOf).thenComparing(LIST_ORDER));
+        return result;
+    }
+
+    /**
+     * Returns the tasks with the given priority, in list order.
+     *
+     * @param priority The priority to look up
+     * @return A new list of the tasks with that priority
+     */
+    public Collection<Task> getByPriority(Priority priority) {
+        return read(() -> new ArrayList<>(priorityIndex.get(priority)), snapshot -> {
+            List<Task> result = new ArrayList<>();
+            for (Task task : snapshot) {
+                if (task.getPriority() == priority) {
+                    result.add(task);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns up to the given number of tasks, highest priority first and in list order within a priority.
+     *
+     * @param count The maximum number of tasks to return
+     * @return The top tasks
+     */
+    public List<Task> getTop(int count) {
+        return read(() -> priorityIndex.getTop(count), snapshot -> PriorityIndex.scanTop(count, snapshot));
     }
 
     /**
@@ -98,6 +440,178 @@ public class TaskList {
      * @return A new ArrayList containing all tasks
      */
     public ArrayList<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        return new ArrayList<>(snapshot());
+    }
+
+    /**
+     * Returns the tasks in list order without waiting for another thread's change in progress.
+     * The snapshot includes every change completed before it, unless another thread is making a change
+     * at that moment, in which case the last snapshot taken is returned if it includes the calling thread's
+     * own changes. A thread in the middle of a change sees that change too. The list is shared between
+     * callers rather than copied, so it is cheap to take, and it does not change when the task list does.
+     *
+     * @return An unmodifiable list of the tasks
+     */
+    public List<Task> snapshot() {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return Collections.unmodifiableList(tasks.toList());
+        }
+        Snapshot current = snapshot;
+        if (current.version == version) {
+            return current.tasks;
+        }
+
+        if (current.version >= lastOwnVersion.get()) {
+            if (!lock.readLock().tryLock()) {
+                isSnapshotWanted = true;
+                return current.tasks;
+            }
+        } else {
+            lock.readLock().lock();
+        }
+        try {
+            return takeSnapshot().tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the tasks in list order, which is not affected by later changes.
+     *
+     * @return The iterator
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return snapshot().iterator();
+    }
+
+    private void index(Task task) {
+        nextId = task.getId() + 1;
+        tasks.add(task);
+        addToIndexes(task);
+    }
+
+    private void addToIndexes(Task task) {
+        tasksById.put(task.getId(), task);
+        trigramIndex.add(task);
+        timeIndex.add(task);
+        priorityIndex.add(task);
+    }
+
+    private void unindex(Task task) {
+        tasksById.remove(task.getId());
+        trigramIndex.remove(task);
+        timeIndex.remove(task);
+        priorityIndex.remove(task);
+    }
+
+    private static void setDone(Task task, boolean isDone) {
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+    }
+
+    /**
+     * Reads the list through its indexes under the read lock or, if another thread is in the middle of a change
+     * or waiting to make one, and the last snapshot includes the calling thread's own changes, by scanning
+     * that snapshot instead. A waiting writer is not overtaken, as a steady stream of readers could otherwise
+     * keep it out indefinitely.
+     *
+     * @param fromIndexes The read to run under the read lock
+     * @param fromSnapshot The same read made by scanning a snapshot in list order
+     * @return The result of whichever read was run
+     */
+    private <T> T read(Supplier<T> fromIndexes, Function<List<Task>, T> fromSnapshot) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return fromIndexes.get();
+        }
+        if (lock.hasQueuedThreads() || !lock.readLock().tryLock()) {
+            Snapshot current = snapshot;
+            if (current.version >= lastOwnVersion.get()) {
+                isSnapshotWanted = true;
+                return fromSnapshot.apply(current.tasks);
+            }
+            lock.readLock().lock();
+        }
+        try {
+            return fromIndexes.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the position of the task with the given ID in a snapshot, or a negative number if it has none.
+     * IDs increase in list order, so the snapshot is searched by bisection.
+     */
+    private static int positionOf(List<Task> snapshot, long id) {
+        int low = 0;
+        int high = snapshot.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = snapshot.get(middle).getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private void lockWrite() {
+        lock.writeLock().lock();
+    }
+
+    /**
+     * Releases one hold of the write lock. Releasing the outermost hold completes a change, so readers
+     * stop using the previous snapshot, and a new one is taken at once if a reader was kept waiting for it.
+     */
+    private void unlockWrite() {
+        if (lock.getWriteHoldCount() == 1) {
+            version++;
+            lastOwnVersion.set(version);
+            if (isSnapshotWanted) {
+                isSnapshotWanted = false;
+                takeSnapshot();
+            }
+        }
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * Returns a snapshot of the current version, taking one if the latest is older. Must hold a lock.
+     */
+    private Snapshot takeSnapshot() {
+        Snapshot current = snapshot;
+        if (current.version != version) {
+            current = new Snapshot(Collections.unmodifiableList(tasks.toList()), version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * The tasks in list order as of a version of the list.
+     */
+    private static class Snapshot {
+        private final List<Task> tasks;
+        private final long version;
+
+        Snapshot(List<Task> tasks, long version) {
+            this.tasks = tasks;
+            this.version = version;
+        }
+    }
+
+    private void logUndo(Runnable action) {
+        if (undoLog != null) {
+            undoLog.push(action);
+        }
     }
-}
\ No newline at end of file
+}
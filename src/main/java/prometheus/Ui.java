@@ -1,73 +1,77 @@
 package prometheus;
 
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.Scanner;
 
+import prometheus.command.CommandResult;
+
 /**
- * Handles user interface operations for the Prometheus application.
- * Manages input/output interactions and maintains the last output message.
+ * Handles user interface operations for the Prometheus command line.
+ * Reads commands from an input stream and prints the rendered result of each command to an output stream.
  */
 public class Ui {
-    private final Scanner scanner;
-    private String lastOutput;
-
     /**
-     * Constructs a new UI handler.
-     * Initializes the scanner for reading user input.
+     * The greeting shown when Prometheus starts.
      */
-    public Ui() {
-        scanner = new Scanner(System.in);
-        lastOutput = "";
-    }
+    public static final String WELCOME_MESSAGE = "Hello! I'm Prometheus\nWhat can I do for you?";
+
+    private final Scanner scanner;
+    private final PrintStream out;
 
     /**
-     * Shows the welcome message to the user.
+     * Constructs a new UI handler that reads from standard input and prints to standard output.
      */
-    public void showWelcome() {
-        setLastOutput("Hello! I'm Prometheus\nWhat can I do for you?");
+    public Ui() {
+        this(System.in, System.out);
     }
 
     /**
-     * Displays an error message to the user.
+     * Constructs a new UI handler that reads from and prints to the given streams.
      *
-     * @param message The error message to display
+     * @param in The stream commands are read from
+     * @param out The stream results are printed to
      */
-    public void showError(String message) {
-        setLastOutput("Error! " + message);
+    public Ui(InputStream in, PrintStream out) {
+        scanner = new Scanner(in);
+        this.out = out;
     }
 
     /**
-     * Displays a message to the user.
-     *
-     * @param message The message to display
+     * Shows the welcome message to the user.
      */
-    public void showMessage(String message) {
-        setLastOutput(message);
+    public void showWelcome() {
+        out.println(WELCOME_MESSAGE);
     }
 
     /**
-     * Sets the last output message.
+     * Displays an error message to the user.
      *
-     * @param message The message to store
+     * @param message The error message to display
      */
-    private void setLastOutput(String message) {
-        this.lastOutput = message;
+    public void showError(String message) {
+        show(CommandResult.error(message));
     }
 
     /**
-     * Gets the last output message.
+     * Displays the result of a command to the user.
+     * Long listings are printed a task at a time, so they are never built in memory whole.
      *
-     * @return The last output message
+     * @param result The result to display
      */
-    public String getLastOutput() {
-        return lastOutput;
+    public void show(CommandResult result) {
+        result.printTo(out);
     }
 
     /**
      * Reads a command from the user input.
      *
-     * @return The command string entered by the user
+     * @return The command string entered by the user, or null if the input has ended
      */
     public String readCommand() {
+        if (!scanner.hasNextLine()) {
+            return null;
+        }
         return scanner.nextLine().trim();
     }
 
@@ -77,4 +81,4 @@ public class Ui {
     public void close() {
         scanner.close();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,13 @@
 package prometheus.command;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 import prometheus.PrometheusException;
 
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
+import prometheus.task.DateCodec;
 import prometheus.task.Deadline;
 import prometheus.task.Event;
 import prometheus.task.Task;
@@ -37,25 +38,31 @@ public class AddCommand extends Command {
     /**
      * Executes the add command by creating and storing a new task.
      * Creates the appropriate task type, adds it to the task list,
-     * saves the updated list, and shows a confirmation message.
+     * records the addition in storage, and confirms it.
      *
      * @param tasks The task list to add the new task to
-     * @param ui The UI handler for displaying messages
      * @param storage The storage handler for saving tasks
+     * @return The added task and the new size of the list
      * @throws PrometheusException If task creation or storage fails
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
         assert tasks != null : "TaskList cannot be null";
-        assert ui != null : "UI cannot be null";
         assert storage != null : "Storage cannot be null";
 
         Task task = createTask();
         assert task != null : "Created task cannot be null";
-        tasks.add(task);
-        storage.save(tasks);
-        ui.showMessage("Got it. I've added this task:\n  " + task
-                + "\nNow you have " + tasks.size() + " tasks in the list.");
+        int[] size = new int[1];
+        String[] message = new String[1];
+        runTransaction(tasks, storage, () -> {
+            tasks.add(task);
+            storage.recordAdd(tasks, task);
+            size[0] = tasks.size();
+            message[0] = "Got it. I've added this task:\n  " + task
+                    + "\nNow you have " + size[0] + " tasks in the list.";
+        });
+        String text = message[0];
+        return new CommandResult(CommandResult.Kind.ADDED, List.of(task), size[0], () -> text);
     }
 
     /**
@@ -141,8 +148,8 @@ public class AddCommand extends Command {
      */
     private LocalDateTime parseDateTime(String dateTimeString) throws PrometheusException {
         try {
-            return LocalDateTime.parse(dateTimeString, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-        } catch (Exception e) {
+            return DateCodec.parseStorage(dateTimeString);
+        } catch (PrometheusException e) {
             throw new PrometheusException("Invalid date format. Use: yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
         }
     }
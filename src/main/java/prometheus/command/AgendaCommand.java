@@ -0,0 +1,99 @@
+package prometheus.command;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.DateCodec;
+import prometheus.task.Task;
+
+/**
+ * Represents a command to show the deadlines and events falling within a time range.
+ * Deadlines are shown if they are due within the range, and events if they overlap it.
+ * Supported ranges:
+ * - (none) or week: from the start of today until the end of the sixth day after
+ * - today: from the start until the end of today
+ * - yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm: an explicit range
+ */
+public class AgendaCommand extends Command {
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Constructs an AgendaCommand for the range described by the arguments.
+     *
+     * @param arguments The range to show
+     * @throws PrometheusException If the range is malformed or ends before it starts
+     */
+    public AgendaCommand(String arguments) throws PrometheusException {
+        this(arguments, LocalDate.now());
+    }
+
+    /**
+     * Constructs an AgendaCommand with relative ranges measured from the given day.
+     *
+     * @param arguments The range to show
+     * @param today The day relative ranges start on
+     * @throws PrometheusException If the range is malformed or ends before it starts
+     */
+    AgendaCommand(String arguments, LocalDate today) throws PrometheusException {
+        String range = arguments.trim().toLowerCase();
+        switch (range) {
+        case "":
+        case "week":
+            start = today.atStartOfDay();
+            end = today.plusDays(DAYS_IN_WEEK - 1).atTime(LocalTime.MAX);
+            break;
+        case "today":
+            start = today.atStartOfDay();
+            end = today.atTime(LocalTime.MAX);
+            break;
+        default:
+            String[] parts = range.split("/to", 2);
+            if (parts.length < 2) {
+                throw new PrometheusException(
+                        "Please use format: agenda [today/week] or agenda yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm");
+            }
+            start = DateCodec.parseStorage(parts[0]);
+            end = DateCodec.parseStorage(parts[1]);
+            if (end.isBefore(start)) {
+                throw new PrometheusException("End time must be after start time!");
+            }
+        }
+    }
+
+    /**
+     * Executes the agenda command by looking up the scheduled tasks in the task list's time index
+     * and listing them in chronological order.
+     *
+     * @param tasks The task list to search
+     * @param storage The storage handler (not used in this command)
+     * @return The scheduled tasks
+     */
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) {
+        List<Task> scheduled = tasks.findScheduled(start, end);
+        String range = DateCodec.formatDisplay(start) + " and " + DateCodec.formatDisplay(end);
+        if (scheduled.isEmpty()) {
+            return new CommandResult(CommandResult.Kind.LISTED, scheduled, -1,
+                    () -> "Nothing is scheduled between " + range + ".");
+        }
+        return listNumbered(scheduled, -1, "Here is your agenda between " + range + ":\n", 1);
+    }
+
+    /**
+     * Indicates whether this command exits the application.
+     *
+     * @return false as this command does not exit the application
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package prometheus.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import prometheus.Parser;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Task;
+
+/**
+ * Represents a command that runs several commands as a single transaction.
+ * The commands are written between braces and separated by semicolons or line breaks,
+ * e.g. "batch { todo read book; mark 1-3; delete 5 }". They are all parsed before any of them runs,
+ * their changes are written to storage together once every command has succeeded, and if any command
+ * fails, the changes made by the commands before it are undone.
+ */
+public class BatchCommand extends Command {
+    private final List<String> inputs = new ArrayList<>();
+    private final List<Command> commands = new ArrayList<>();
+
+    /**
+     * Constructs a BatchCommand by parsing each command in the block.
+     *
+     * @param arguments The block of commands, enclosed in braces
+     * @throws PrometheusException If the block is malformed or any command in it cannot be parsed
+     */
+    public BatchCommand(String arguments) throws PrometheusException {
+        String block = arguments.trim();
+        if (!block.startsWith("{") || !block.endsWith("}") || block.length() < 2) {
+            throw new PrometheusException("Please use format: batch { <command>; <command>; ... }");
+        }
+
+        for (String input : block.substring(1, block.length() - 1).split("[;\\n]")) {
+            input = input.trim();
+            if (input.isEmpty()) {
+                continue;
+            }
+            Command command;
+            try {
+                command = Parser.parse(input);
+            } catch (PrometheusException e) {
+                throw new PrometheusException("In '" + input + "': " + e.getMessage());
+            }
+            if (command instanceof BatchCommand || command.isExit()) {
+                throw new PrometheusException("'" + input + "' cannot be used inside a batch.");
+            }
+            inputs.add(input);
+            commands.add(command);
+        }
+        if (commands.isEmpty()) {
+            throw new PrometheusException("A batch needs at least one command.");
+        }
+    }
+
+    /**
+     * Executes every command in the batch in order as one transaction, then shows their messages together.
+     * Each message is rendered as soon as its command has run, so it shows the tasks as that command left them.
+     *
+     * @param tasks The task list to operate on
+     * @param storage The storage handler for saving the updated task list
+     * @return The tasks affected by the commands and their messages, separated by blank lines
+     * @throws PrometheusException If any command fails, after the whole batch has been undone
+     */
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        StringBuilder sb = new StringBuilder();
+        List<Task> affected = new ArrayList<>();
+        int[] size = new int[1];
+        runTransaction(tasks, storage, () -> {
+            for (int i = 0; i < commands.size(); i++) {
+                CommandResult result;
+                try {
+                    result = commands.get(i).execute(tasks, storage);
+                } catch (PrometheusException e) {
+                    throw new PrometheusException("'" + inputs.get(i) + "' failed, so the batch was undone: "
+                            + e.getMessage());
+                }
+                if (sb.length() > 0) {
+                    sb.append("\n\n");
+                }
+                sb.append(result.render());
+                affected.addAll(result.getTasks());
+            }
+            size[0] = tasks.size();
+        });
+        String message = sb.toString();
+        return new CommandResult(CommandResult.Kind.BATCH, affected, size[0], () -> message);
+    }
+
+    /**
+     * Indicates whether this command exits the application.
+     *
+     * @return false as this command does not exit the application
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -1,14 +1,21 @@
 package prometheus.command;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
+import prometheus.task.Task;
 
 /**
  * Represents a command that can be executed by the Prometheus chatbot.
  * Each command encapsulates a specific action to be performed on the task list,
  * such as adding, deleting, or listing tasks.
- * Commands are executed with access to the task list, user interface, and storage.
+ * Commands are executed with access to the task list and storage, and describe their outcome
+ * in a {@link CommandResult} that the caller renders, so commands never write to a user interface.
  * This abstract class defines the structure for all concrete command implementations.
  *
  * @author Prometheus
@@ -18,17 +25,23 @@ import prometheus.Ui;
  * @see prometheus.command.ExitCommand
  * @see prometheus.command.FindCommand
  * @see prometheus.command.MarkCommand
+ * @see prometheus.command.BatchCommand
  */
 public abstract class Command {
     /**
-     * Executes the command with the given task list, UI, and storage.
+     * Number of characters of a listing formatted before they are printed.
+     */
+    private static final int PRINT_BUFFER_SIZE = 8192;
+
+    /**
+     * Executes the command with the given task list and storage.
      *
      * @param tasks The task list to operate on
-     * @param ui The UI handler for displaying messages
      * @param storage The storage handler for saving tasks
+     * @return The outcome of the command
      * @throws PrometheusException If the command execution fails
      */
-    public abstract void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException;
+    public abstract CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException;
 
     /**
      * Indicates whether this command should cause the application to exit.
@@ -57,4 +70,137 @@ public abstract class Command {
             throw new PrometheusException("Please enter a valid task number.");
         }
     }
+
+    /**
+     * Parses and validates a selection of task indices, such as "3", "3,7,9", "1-500" or "1..50".
+     * Ranges are inclusive, and a task selected more than once is only returned once.
+     *
+     * @param argument The string argument containing the selection
+     * @param maxIndex The maximum valid index (size of the task list)
+     * @return The parsed and validated 0-based indices, in the order they were given
+     * @throws PrometheusException If any part of the selection is not a number, a range or in valid range
+     */
+    protected List<Integer> parseIndices(String argument, int maxIndex) throws PrometheusException {
+        Set<Integer> indices = new LinkedHashSet<>();
+        for (String item : argument.split(",")) {
+            String[] bounds = item.split("\\.\\.|-", 2);
+            if (bounds.length == 1) {
+                indices.add(parseIndex(item, maxIndex));
+                continue;
+            }
+
+            int first = parseIndex(bounds[0], maxIndex);
+            int last = parseIndex(bounds[1], maxIndex);
+            if (first > last) {
+                throw new PrometheusException("Invalid range " + item.trim()
+                        + "! The first task number must come first.");
+            }
+            for (int index = first; index <= last; index++) {
+                indices.add(index);
+            }
+        }
+        return new ArrayList<>(indices);
+    }
+
+    /**
+     * Formats tasks for a confirmation message, one indented task per line, each preceded by a line separator.
+     *
+     * @param tasks The tasks to format
+     * @return The formatted tasks
+     */
+    protected static String formatTasks(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks) {
+            sb.append("\n  ").append(task);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats tasks as a numbered list under a heading, one task per line, each line ending in a line separator.
+     *
+     * @param heading The heading, including its line separator
+     * @param tasks The tasks to list
+     * @param firstNumber The number the first task is listed with
+     * @return The formatted list
+     */
+    protected static String formatNumbered(String heading, Collection<Task> tasks, int firstNumber) {
+        StringBuilder sb = new StringBuilder(heading);
+        int number = firstNumber;
+        for (Task task : tasks) {
+            sb.append(" ").append(number++).append(".").append(task).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the result of listing tasks as a numbered list under a heading, as formatted by
+     * {@link #formatNumbered(String, Collection, int)}. When printed before it is rendered, the list is
+     * formatted into a small buffer that is printed each time it fills, rather than built in memory whole.
+     *
+     * @param tasks The tasks to list
+     * @param listSize The number of tasks in the list, or -1 if the command does not report it
+     * @param heading The heading, including its line separator
+     * @param firstNumber The number the first task is listed with
+     * @return The result
+     */
+    protected static CommandResult listNumbered(List<Task> tasks, int listSize, String heading, int firstNumber) {
+        return new CommandResult(CommandResult.Kind.LISTED, tasks, listSize,
+                () -> formatNumbered(heading, tasks, firstNumber), out -> {
+                    StringBuilder sb = new StringBuilder(PRINT_BUFFER_SIZE);
+                    sb.append(heading);
+                    int number = firstNumber;
+                    for (Task task : tasks) {
+                        sb.append(" ").append(number++).append(".").append(task).append("\n");
+                        if (sb.length() >= PRINT_BUFFER_SIZE) {
+                            out.append(sb);
+                            sb.setLength(0);
+                        }
+                    }
+                    out.append(sb);
+                });
+    }
+
+    /**
+     * Runs the given changes as a single transaction: their journal records are written together
+     * once they all succeed, and if any of them fails every change already made is undone.
+     * Within an enclosing transaction, such as a batch, the changes simply become part of it.
+     *
+     * @param tasks The task list the changes are made to
+     * @param storage The storage handler the changes are recorded with
+     * @param changes The changes to make
+     * @throws PrometheusException If any change fails or the journal cannot be written
+     */
+    protected static void runTransaction(TaskList tasks, Storage storage, Transaction changes)
+            throws PrometheusException {
+        if (tasks.isInTransaction()) {
+            changes.run();
+            return;
+        }
+
+        tasks.beginTransaction();
+        storage.beginBatch();
+        try {
+            changes.run();
+            storage.commitBatch(tasks);
+        } catch (PrometheusException | RuntimeException e) {
+            storage.rollbackBatch();
+            tasks.rollbackTransaction();
+            throw e;
+        }
+        tasks.commitTransaction();
+    }
+
+    /**
+     * Changes to a task list made within a transaction.
+     */
+    @FunctionalInterface
+    protected interface Transaction {
+        /**
+         * Makes the changes.
+         *
+         * @throws PrometheusException If a change fails
+         */
+        void run() throws PrometheusException;
+    }
 }
@@ -0,0 +1,182 @@
+package prometheus.command;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.Supplier;
+
+import prometheus.task.Task;
+
+/**
+ * Represents the outcome of executing a command.
+ * A result records what kind of outcome it is, the tasks it concerns and the size of the task list
+ * afterwards, so that each front end can present it in its own way. The text shown to the user is only
+ * rendered when it is first asked for, and then kept, so results that are never shown cost nothing to format.
+ * Tasks are rendered as they are at that time, which may include later changes by other threads, so only
+ * results of commands that look tasks up are rendered lazily. Commands that change tasks render their text
+ * before their transaction ends and pass a renderer that returns it, so it shows the tasks as the command left them.
+ * Results that list many tasks can also be printed piece by piece, straight to an output stream,
+ * so that their text is never held in memory whole.
+ */
+public class CommandResult {
+    /**
+     * The kinds of outcome a command can have.
+     */
+    public enum Kind {
+        /** A message that does not concern particular tasks, such as a greeting. */
+        INFO,
+        /** Tasks were added to the list. */
+        ADDED,
+        /** Tasks were removed from the list. */
+        REMOVED,
+        /** Tasks in the list were changed. */
+        UPDATED,
+        /** Tasks were looked up and shown without being changed. */
+        LISTED,
+        /** Several commands were run together, with mixed outcomes. */
+        BATCH,
+        /** The command failed and nothing was changed. */
+        ERROR,
+        /** The application should exit. */
+        EXIT
+    }
+
+    /**
+     * Prints the text of a result to a stream piece by piece.
+     */
+    @FunctionalInterface
+    public interface Printer {
+        /**
+         * Prints the text, without a trailing line separator.
+         *
+         * @param out The stream to print to
+         */
+        void print(PrintStream out);
+    }
+
+    private final Kind kind;
+    private final List<Task> tasks;
+    private final int listSize;
+    private final Supplier<String> renderer;
+    private final Printer printer;
+    private volatile String text;
+
+    /**
+     * Constructs a result that is rendered by the given function when its text is first needed.
+     *
+     * @param kind The kind of outcome
+     * @param tasks The tasks the outcome concerns, in the order they are shown
+     * @param listSize The number of tasks in the list after the command, or -1 if the command does not report it
+     * @param renderer The function rendering the text of the result
+     */
+    public CommandResult(Kind kind, List<Task> tasks, int listSize, Supplier<String> renderer) {
+        this(kind, tasks, listSize, renderer, null);
+    }
+
+    /**
+     * Constructs a result that is rendered by the given function when its text is first needed,
+     * or printed by the given printer if it is printed before then.
+     * Both must produce the same text.
+     *
+     * @param kind The kind of outcome
+     * @param tasks The tasks the outcome concerns, in the order they are shown
+     * @param listSize The number of tasks in the list after the command, or -1 if the command does not report it
+     * @param renderer The function rendering the text of the result
+     * @param printer The printer writing the text of the result to a stream, or null to print the rendered text
+     */
+    public CommandResult(Kind kind, List<Task> tasks, int listSize, Supplier<String> renderer, Printer printer) {
+        assert kind != null : "Result kind cannot be null";
+        assert renderer != null : "Renderer cannot be null";
+        this.kind = kind;
+        this.tasks = tasks;
+        this.listSize = listSize;
+        this.renderer = renderer;
+        this.printer = printer;
+    }
+
+    /**
+     * Returns a result consisting of a fixed message that does not concern particular tasks.
+     *
+     * @param kind The kind of outcome
+     * @param message The message to show
+     * @return The result
+     */
+    public static CommandResult message(Kind kind, String message) {
+        return new CommandResult(kind, List.of(), -1, () -> message);
+    }
+
+    /**
+     * Returns the result of a command that failed.
+     *
+     * @param message The error message, without any prefix
+     * @return The result, rendered as the message prefixed with "Error! "
+     */
+    public static CommandResult error(String message) {
+        return new CommandResult(Kind.ERROR, List.of(), -1, () -> "Error! " + message);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the number of tasks in the list after the command.
+     *
+     * @return The number of tasks, or -1 if the command does not report it
+     */
+    public int getListSize() {
+        return listSize;
+    }
+
+    /**
+     * Returns whether the command failed.
+     *
+     * @return true if the result is an error
+     */
+    public boolean isError() {
+        return kind == Kind.ERROR;
+    }
+
+    /**
+     * Returns the text of the result as shown to the user, rendering it if this is the first time it is needed.
+     *
+     * @return The rendered text
+     */
+    public String render() {
+        String rendered = text;
+        if (rendered == null) {
+            rendered = renderer.get();
+            text = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * Prints the text of the result followed by a line separator, as {@code out.println(render())} would.
+     * A result that has not been rendered yet and has a printer is printed piece by piece instead,
+     * without building its text.
+     *
+     * @param out The stream to print to
+     */
+    public void printTo(PrintStream out) {
+        if (printer == null || text != null) {
+            out.println(render());
+            return;
+        }
+        printer.print(out);
+        out.println();
+    }
+
+    /**
+     * Returns the rendered text of the result.
+     *
+     * @return The rendered text
+     */
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -1,14 +1,17 @@
 package prometheus.command;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
 import prometheus.task.Task;
 
 /**
  * Handles the deletion of tasks from the task list.
- * This command removes a task at the specified index from the task list
+ * This command removes a task at the specified index, or several tasks selected at once,
+ * such as "3,7,9", from the task list
  * and updates the storage accordingly.
  */
 public class DeleteCommand extends Command {
@@ -17,30 +20,50 @@ public class DeleteCommand extends Command {
     /**
      * Constructs a DeleteCommand with the specified index argument.
      *
-     * @param arguments The string containing the index of the task to delete
+     * @param arguments The string containing the indices of the tasks to delete
      */
     public DeleteCommand(String arguments) {
         this.arguments = arguments;
     }
 
     /**
-     * Executes the delete command by removing the specified task.
-     * Parses the index, removes the task from the list, saves the updated list,
-     * and shows a confirmation message.
+     * Executes the delete command by removing the selected tasks.
+     * Parses the indices, which all refer to positions before any task is removed, removes the tasks
+     * from the list, records the removals in storage as one transaction, and confirms the removals.
      *
      * @param tasks The task list to delete from
-     * @param ui The UI handler for displaying messages
      * @param storage The storage handler for saving the updated task list
-     * @throws PrometheusException If the index is invalid or task removal fails
+     * @return The removed tasks and the new size of the list
+     * @throws PrometheusException If an index is invalid or task removal fails
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
-        int index = parseIndex(arguments, tasks.size());
-        Task removedTask = tasks.remove(index);
-        storage.save(tasks);
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        List<Task> selected = new ArrayList<>();
+        int[] size = new int[1];
+        String[] message = new String[1];
+        runTransaction(tasks, storage, () -> {
+            for (int index : parseIndices(arguments, tasks.size())) {
+                selected.add(tasks.get(index));
+            }
+            for (Task task : selected) {
+                tasks.removeById(task.getId());
+                storage.recordDelete(tasks, task);
+            }
+            size[0] = tasks.size();
+            message[0] = describe(selected, size[0]);
+        });
+
+        String text = message[0];
+        return new CommandResult(CommandResult.Kind.REMOVED, selected, size[0], () -> text);
+    }
 
-        ui.showMessage("Noted. I've removed this task:\n  " + removedTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.");
+    private static String describe(List<Task> removed, int size) {
+        if (removed.size() == 1) {
+            return "Noted. I've removed this task:\n  " + removed.get(0)
+                    + "\nNow you have " + size + " tasks in the list.";
+        }
+        return "Noted. I've removed these " + removed.size() + " tasks:" + formatTasks(removed)
+                + "\nNow you have " + size + " tasks in the list.";
     }
 
     /**
@@ -1,23 +1,26 @@
 package prometheus.command;
+import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
 
 /**
  * Represents a command to exit the Prometheus application.
- * This command displays a farewell message and signals the application to terminate.
+ * This command displays a farewell message and signals the application to terminate,
+ * after making sure every change has been written to storage.
  */
 public class ExitCommand extends Command {
     /**
-     * Executes the exit command by showing a farewell message to the user.
+     * Executes the exit command by flushing any changes waiting to be written and saying farewell.
      *
      * @param tasks The task list (not used in this command)
-     * @param ui The UI handler used to display the farewell message
-     * @param storage The storage handler (not used in this command)
+     * @param storage The storage handler to flush
+     * @return The farewell message
+     * @throws PrometheusException If the waiting changes cannot be written
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showMessage("Bye. Hope to see you again soon!");
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        storage.flush();
+        return CommandResult.message(CommandResult.Kind.EXIT, "Bye. Hope to see you again soon!");
     }
 
     /**
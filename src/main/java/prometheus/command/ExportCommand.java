@@ -0,0 +1,81 @@
+package prometheus.command;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Task;
+import prometheus.task.TaskFileFormat;
+
+/**
+ * Exports every task to a CSV or JSON Lines file, as described in {@link TaskFileFormat}, replacing the file
+ * if it exists. Tasks are encoded and written one at a time through a buffer, from a snapshot of the list,
+ * so the export neither builds the whole file in memory nor holds up changes made meanwhile.
+ */
+public class ExportCommand extends Command {
+    private final String fileName;
+    private final TaskFileFormat format;
+
+    /**
+     * Constructs an ExportCommand for the file named in the arguments.
+     *
+     * @param arguments The path of the file to export to
+     * @throws PrometheusException If no file is given or its type is not recognised
+     */
+    public ExportCommand(String arguments) throws PrometheusException {
+        this.fileName = arguments.trim();
+        if (fileName.isEmpty()) {
+            throw new PrometheusException("Please use format: export <file.csv or file.jsonl>");
+        }
+        this.format = TaskFileFormat.forFile(fileName);
+    }
+
+    /**
+     * Executes the export command by writing every task in the list to the file.
+     *
+     * @param tasks The task list to export
+     * @param storage The storage handler, which resolves the file name
+     * @return The number of tasks exported, with the throughput of the export
+     * @throws PrometheusException If the file may not be used or cannot be written
+     */
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        long start = System.nanoTime();
+        Path file = storage.resolveTransferFile(fileName);
+        List<Task> allTasks = tasks.snapshot();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            String header = format.getHeader();
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+            for (Task task : allTasks) {
+                writer.write(format.encode(task));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new PrometheusException("Could not write " + fileName + ": " + e.getMessage());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return CommandResult.message(CommandResult.Kind.INFO, String.format(
+                "Exported %d tasks to %s in %.2f s (%.0f rows/s).",
+                allTasks.size(), fileName, seconds, allTasks.size() / Math.max(seconds, 1e-9)));
+    }
+
+    /**
+     * Indicates whether this command exits the application.
+     *
+     * @return false as this command does not exit the application
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
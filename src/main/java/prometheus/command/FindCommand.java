@@ -4,60 +4,55 @@ import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.task.Task;
 import prometheus.TaskList;
-import prometheus.Ui;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a command to search for tasks containing a specific keyword.
- * This command searches through all tasks in the task list and displays those
- * that contain the specified keyword in their description.
+ * This command displays the tasks in the task list that contain the specified
+ * keyword in their description.
  */
 public class FindCommand extends Command {
     /** The keyword to search for in task descriptions. */
     private final String keyword;
+    private final Paging paging;
 
     /**
-     * Constructs a new FindCommand with the given search keyword.
+     * Constructs a new FindCommand with the given search keyword, optionally followed by paging options
+     * as in "find book --page 2 --size 20".
      *
-     * @param arguments The search keyword provided by the user
-     * @throws PrometheusException If the search keyword is null or empty
+     * @param arguments The search keyword provided by the user, followed by any paging options
+     * @throws PrometheusException If the search keyword is null or empty, or a paging option is invalid
      */
     public FindCommand(String arguments) throws PrometheusException {
-        if (arguments == null || arguments.trim().isEmpty()) {
+        if (arguments == null) {
             throw new PrometheusException("Please enter a keyword to search for.");
         }
-        this.keyword = arguments.trim().toLowerCase();
+        this.paging = Paging.parse(arguments);
+        if (paging.getRemainder().trim().isEmpty()) {
+            throw new PrometheusException("Please enter a keyword to search for.");
+        }
+        this.keyword = paging.getRemainder().trim().toLowerCase();
     }
 
     /**
-     * Executes the find command. Searches through all tasks in the task list
-     * for those containing the specified keyword and displays the matching tasks.
+     * Executes the find command. Looks up the tasks containing the specified keyword
+     * in the task list's index and lists the matching tasks, or those on the requested page.
      *
      * @param tasks The list of tasks to search through
-     * @param ui The user interface to display results
      * @param storage The storage object (unused in this command)
-     * @throws PrometheusException If there is an error during execution
+     * @return The matching tasks
+     * @throws PrometheusException If the requested page is past the end of the matching tasks
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
-
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            if (task.getDescription().toLowerCase().contains(keyword)) {
-                matchingTasks.add(task);
-            }
-        }
-
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        List<Task> matchingTasks = tasks.find(keyword);
         if (matchingTasks.isEmpty()) {
-            ui.showMessage("No tasks found containing: " + keyword);
-        } else {
-            StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                sb.append(" ").append(i + 1).append(".").append(matchingTasks.get(i)).append("\n");
-            }
-            ui.showMessage(sb.toString());
+            return new CommandResult(CommandResult.Kind.LISTED, matchingTasks, -1,
+                    () -> "No tasks found containing: " + keyword);
         }
+        return listNumbered(paging.select(matchingTasks), -1,
+                paging.heading("Here are the matching tasks in your list:", matchingTasks.size()),
+                paging.getFirstNumber());
     }
 
     @Override
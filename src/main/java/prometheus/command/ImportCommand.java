@@ -0,0 +1,165 @@
+package prometheus.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Task;
+import prometheus.task.TaskFileFormat;
+
+/**
+ * Imports tasks from a CSV or JSON Lines file, as described in {@link TaskFileFormat}.
+ * The file is streamed a line at a time, and decoded tasks are added to the list in chunks as they are read,
+ * so besides the tasks themselves only one chunk is held in memory however large the file is.
+ * Each task is indexed once as it is added. Rows that cannot be decoded are skipped and counted,
+ * and the first few of them are reported with the reason they were rejected.
+ * The whole import is one transaction, saved as a single snapshot at the end rather than
+ * journalled task by task, and undone entirely if the file cannot be read or the snapshot written.
+ */
+public class ImportCommand extends Command {
+    /**
+     * Number of decoded tasks held before they are added to the list.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Number of rejected rows whose reasons are reported.
+     */
+    private static final int MAX_REPORTED_REJECTIONS = 5;
+
+    private final String fileName;
+    private final TaskFileFormat format;
+
+    /**
+     * Constructs an ImportCommand for the file named in the arguments.
+     *
+     * @param arguments The path of the file to import
+     * @throws PrometheusException If no file is given or its type is not recognised
+     */
+    public ImportCommand(String arguments) throws PrometheusException {
+        this.fileName = arguments.trim();
+        if (fileName.isEmpty()) {
+            throw new PrometheusException("Please use format: import <file.csv or file.jsonl>");
+        }
+        this.format = TaskFileFormat.forFile(fileName);
+    }
+
+    /**
+     * Executes the import command by adding every valid row of the file to the task list
+     * and saving the list once.
+     *
+     * @param tasks The task list to add the tasks to
+     * @param storage The storage handler for saving tasks
+     * @return The number of tasks imported and rows rejected, with the throughput of the import
+     * @throws PrometheusException If part of a batch, if the file is refused or unreadable, or if the list is not saved
+     */
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        assert tasks != null : "TaskList cannot be null";
+        assert storage != null : "Storage cannot be null";
+        if (tasks.isInTransaction()) {
+            // The snapshot written at the end could not be taken back if the rest of the batch failed
+            throw new PrometheusException("Imports cannot be part of a batch");
+        }
+
+        Path file = storage.resolveTransferFile(fileName);
+        long start = System.nanoTime();
+        int[] counts = new int[2];
+        Rejections rejections = new Rejections();
+        runTransaction(tasks, storage, () -> {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                counts[0] = readInto(reader, tasks, rejections);
+            } catch (IOException e) {
+                throw new PrometheusException("Could not read " + fileName + ": " + e.getMessage());
+            }
+            if (counts[0] > 0) {
+                storage.save(tasks);
+            }
+            counts[1] = tasks.size();
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int imported = counts[0];
+        int rejected = rejections.count;
+        int size = counts[1];
+        return new CommandResult(CommandResult.Kind.ADDED, List.of(), size, () -> {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Imported %d tasks from %s in %.2f s (%.0f rows/s).",
+                    imported, fileName, seconds, (imported + rejected) / Math.max(seconds, 1e-9)));
+            if (rejected > 0) {
+                sb.append("\nRejected ").append(rejected).append(" rows:");
+                for (String reason : rejections.reasons) {
+                    sb.append("\n  ").append(reason);
+                }
+                if (rejected > rejections.reasons.size()) {
+                    sb.append("\n  ... and ").append(rejected - rejections.reasons.size()).append(" more");
+                }
+            }
+            return sb.append("\nNow you have ").append(size).append(" tasks in the list.").toString();
+        });
+    }
+
+    /**
+     * Reads and decodes every row, adding the tasks to the list a chunk at a time.
+     *
+     * @return The number of tasks added
+     */
+    private int readInto(BufferedReader reader, TaskList tasks, Rejections rejections) throws IOException {
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        int added = 0;
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                if (lineNumber == 1 && format.isHeader(line)) {
+                    continue;
+                }
+                chunk.add(format.decode(line));
+            } catch (PrometheusException e) {
+                rejections.add("line " + lineNumber + ": " + e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                tasks.addAll(chunk);
+                added += chunk.size();
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        tasks.addAll(chunk);
+        return added + chunk.size();
+    }
+
+    /**
+     * The rows rejected during an import, keeping the reasons for only the first few.
+     */
+    private static class Rejections {
+        private final List<String> reasons = new ArrayList<>();
+        private int count;
+
+        void add(String reason) {
+            count++;
+            if (reasons.size() < MAX_REPORTED_REJECTIONS) {
+                reasons.add(reason);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether this command exits the application.
+     *
+     * @return false as this command does not exit the application
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
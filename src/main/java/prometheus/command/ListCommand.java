@@ -1,36 +1,73 @@
 package prometheus.command;
+import java.util.List;
+
 import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
+import prometheus.task.Priority;
+import prometheus.task.Task;
 
 /**
  * Represents a command to display all tasks in the task list.
  * This command shows all tasks with their indices and details,
  * or displays a message if the list is empty.
+ * Given a priority, it shows only the tasks with that priority.
+ * Given a page, it shows only the tasks on that page, numbered as in the whole listing.
  */
 public class ListCommand extends Command {
+    private final Priority priority;
+    private final Paging paging;
+
     /**
-     * Executes the list command by displaying all tasks in the task list.
-     * If the list is empty, shows a message indicating so.
-     * Otherwise, displays each task with its index number.
+     * Constructs a ListCommand that displays every task.
+     */
+    public ListCommand() {
+        this.priority = null;
+        this.paging = Paging.none();
+    }
+
+    /**
+     * Constructs a ListCommand that displays every task, or only those with the priority given in the arguments,
+     * optionally one page at a time, as in "list high --page 3 --size 50".
+     *
+     * @param arguments Empty, or one of high, medium or low, followed by any paging options
+     * @throws PrometheusException If the argument is not a priority or a paging option is invalid
+     */
+    public ListCommand(String arguments) throws PrometheusException {
+        this.paging = Paging.parse(arguments);
+        String priorityStr = paging.getRemainder().trim().toLowerCase();
+        this.priority = priorityStr.isEmpty() ? null : PriorityCommand.parsePriority(priorityStr);
+    }
+
+    /**
+     * Executes the list command by listing all tasks in the task list, or only those with the
+     * requested priority. If there are none, the result says so.
+     * Otherwise, each task on the requested page, or every task, is shown with its index number.
      *
      * @param tasks The task list to display
-     * @param ui The UI handler for displaying messages
      * @param storage The storage handler (not used in this command)
-     * @throws PrometheusException If there's an error accessing the task list
+     * @return The listed tasks
+     * @throws PrometheusException If the requested page is past the end of the listing
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
-        if (tasks.isEmpty()) {
-            ui.showMessage("Your task list is empty!");
-        } else {
-            StringBuilder sb = new StringBuilder("Here are the tasks in your list:\n");
-            for (int i = 0; i < tasks.size(); i++) {
-                sb.append(" ").append(i + 1).append(".").append(tasks.get(i)).append("\n");
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        if (priority != null) {
+            List<Task> matchingTasks = List.copyOf(tasks.getByPriority(priority));
+            if (matchingTasks.isEmpty()) {
+                return new CommandResult(CommandResult.Kind.LISTED, matchingTasks, -1,
+                        () -> "You have no " + priority + " priority tasks!");
             }
-            ui.showMessage(sb.toString());
+            return listNumbered(paging.select(matchingTasks), -1, paging.heading(
+                    "Here are the " + priority + " priority tasks in your list:", matchingTasks.size()),
+                    paging.getFirstNumber());
+        }
+
+        List<Task> allTasks = tasks.snapshot();
+        if (allTasks.isEmpty()) {
+            return new CommandResult(CommandResult.Kind.LISTED, allTasks, 0, () -> "Your task list is empty!");
         }
+        return listNumbered(paging.select(allTasks), allTasks.size(),
+                paging.heading("Here are the tasks in your list:", allTasks.size()), paging.getFirstNumber());
     }
 
     /**
@@ -1,13 +1,16 @@
 package prometheus.command;
+import java.util.ArrayList;
+import java.util.List;
+
 import prometheus.PrometheusException;
 import prometheus.Storage;
 import prometheus.TaskList;
-import prometheus.Ui;
 import prometheus.task.Task;
 
 /**
  * Represents a command to mark or unmark tasks as done in the task list.
- * This command can toggle the completion status of a task at the specified index.
+ * This command can toggle the completion status of a task at the specified index,
+ * or of several tasks selected at once, such as "1-500" or "3,7,9".
  * It supports both marking a task as done and marking it as not done.
  */
 public class MarkCommand extends Command {
@@ -17,7 +20,7 @@ public class MarkCommand extends Command {
     /**
      * Constructs a MarkCommand with the specified index and marking action.
      *
-     * @param arguments The string containing the index of the task to mark/unmark
+     * @param arguments The string containing the indices of the tasks to mark/unmark
      * @param isMark If true, marks the task as done; if false, marks it as not done
      */
     public MarkCommand(String arguments, boolean isMark) {
@@ -26,29 +29,41 @@ public class MarkCommand extends Command {
     }
 
     /**
-     * Executes the mark/unmark command on the specified task.
-     * Updates the task's completion status, saves the changes,
-     * and displays a confirmation message.
+     * Executes the mark/unmark command on the selected tasks.
+     * Updates each task's completion status, records the changes in storage as one transaction,
+     * and confirms the changes.
      *
-     * @param tasks The task list containing the task to mark/unmark
-     * @param ui The UI handler for displaying messages
+     * @param tasks The task list containing the tasks to mark/unmark
      * @param storage The storage handler for saving the updated task list
-     * @throws PrometheusException If the index is invalid or task update fails
+     * @return The updated tasks
+     * @throws PrometheusException If an index is invalid or task update fails
      */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
-        int index = parseIndex(arguments, tasks.size());
-        Task task = tasks.get(index);
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        List<Task> updated = new ArrayList<>();
+        String[] message = new String[1];
+        runTransaction(tasks, storage, () -> {
+            for (int index : parseIndices(arguments, tasks.size())) {
+                Task task = tasks.setDone(index, isMark);
+                storage.recordMark(tasks, task);
+                updated.add(task);
+            }
+            message[0] = describe(updated);
+        });
 
-        if (isMark) {
-            task.markAsDone();
-            ui.showMessage("Nice! I've marked this task as done:\n  " + task);
-        } else {
-            task.markAsNotDone();
-            ui.showMessage("OK, I've marked this task as not done yet:\n  " + task);
-        }
+        String text = message[0];
+        return new CommandResult(CommandResult.Kind.UPDATED, updated, -1, () -> text);
+    }
 
-        storage.save(tasks);
+    private String describe(List<Task> updated) {
+        if (updated.size() == 1) {
+            return isMark
+                    ? "Nice! I've marked this task as done:\n  " + updated.get(0)
+                    : "OK, I've marked this task as not done yet:\n  " + updated.get(0);
+        }
+        return (isMark
+                ? "Nice! I've marked these " + updated.size() + " tasks as done:"
+                : "OK, I've marked these " + updated.size() + " tasks as not done yet:") + formatTasks(updated);
     }
 
     /**
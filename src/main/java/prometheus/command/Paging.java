@@ -0,0 +1,142 @@
+package prometheus.command;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import prometheus.PrometheusException;
+import prometheus.task.Task;
+
+/**
+ * The page of a listing requested with the "--page" and "--size" options, as in "list --page 3 --size 50".
+ * The options are only read at the end of the arguments, so text like "--page 2" within a search keyword
+ * is left alone. Listings without either option are shown whole. A page can be given without a size, which then
+ * defaults to {@value #DEFAULT_SIZE} tasks, and a size without a page, which shows the first page.
+ */
+final class Paging {
+    /**
+     * Number of tasks on a page when only the page is given.
+     */
+    static final int DEFAULT_SIZE = 50;
+
+    private static final Pattern TRAILING_OPTION =
+            Pattern.compile("(?:^|\\s+)--(page|size)(?:(?:=|\\s+)(\\S*))?\\s*$");
+
+    private final int page;
+    private final int size;
+    private final String remainder;
+
+    private Paging(int page, int size, String remainder) {
+        this.page = page;
+        this.size = size;
+        this.remainder = remainder;
+    }
+
+    /**
+     * Returns paging that shows a listing whole.
+     *
+     * @return The paging
+     */
+    static Paging none() {
+        return new Paging(0, DEFAULT_SIZE, "");
+    }
+
+    /**
+     * Takes the paging options off the end of a command's arguments.
+     * If an option is given more than once, its last value is used.
+     *
+     * @param arguments The arguments of the command
+     * @return The requested page, whose {@link #getRemainder() remainder} is the arguments without the options
+     * @throws PrometheusException If a page or size is not a positive number
+     */
+    static Paging parse(String arguments) throws PrometheusException {
+        int page = 0;
+        int size = 0;
+        String remainder = arguments;
+        Matcher matcher = TRAILING_OPTION.matcher(remainder);
+        while (matcher.find()) {
+            // Options are taken from the end, so a value already set was given later
+            int value = parsePositive(matcher.group(1), matcher.group(2));
+            if (matcher.group(1).equals("page")) {
+                page = page > 0 ? page : value;
+            } else {
+                size = size > 0 ? size : value;
+            }
+            remainder = remainder.substring(0, matcher.start());
+            matcher = TRAILING_OPTION.matcher(remainder);
+        }
+        boolean isPaged = page > 0 || size > 0;
+        return new Paging(isPaged ? Math.max(page, 1) : 0, size > 0 ? size : DEFAULT_SIZE, remainder);
+    }
+
+    private static int parsePositive(String option, String value) throws PrometheusException {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new PrometheusException("Please give --" + option + " a positive number, e.g. --" + option + " 2");
+    }
+
+    /**
+     * Returns the arguments of the command without the paging options.
+     *
+     * @return The remaining arguments
+     */
+    String getRemainder() {
+        return remainder;
+    }
+
+    boolean isPaged() {
+        return page > 0;
+    }
+
+    /**
+     * Returns the tasks on the requested page of a listing, without copying them.
+     *
+     * @param tasks Every task in the listing
+     * @return The tasks on the page, or every task if no page was requested
+     * @throws PrometheusException If the listing has no such page
+     */
+    List<Task> select(List<Task> tasks) throws PrometheusException {
+        if (!isPaged() || tasks.isEmpty()) {
+            return tasks;
+        }
+        if (page > countPages(tasks.size())) {
+            throw new PrometheusException("There is no page " + page + "! The list has "
+                    + countPages(tasks.size()) + " pages of " + size + " tasks.");
+        }
+        int from = (page - 1) * size;
+        return tasks.subList(from, Math.min(from + size, tasks.size()));
+    }
+
+    /**
+     * Returns the number the first task on the page is listed with.
+     *
+     * @return The 1-based number of the first task on the page
+     */
+    int getFirstNumber() {
+        return isPaged() ? (page - 1) * size + 1 : 1;
+    }
+
+    /**
+     * Returns the heading of a listing, noting which page is shown if a page was requested.
+     *
+     * @param heading The heading of the whole listing, ending in a colon
+     * @param total The number of tasks in the whole listing
+     * @return The heading, including its line separator
+     */
+    String heading(String heading, int total) {
+        if (!isPaged()) {
+            return heading + "\n";
+        }
+        return heading.substring(0, heading.length() - 1) + " (page " + page + " of " + countPages(total) + "):\n";
+    }
+
+    private int countPages(int total) {
+        return Math.max(1, (int) ((total + (long) size - 1) / size));
+    }
+}
@@ -1,38 +1,41 @@
 // File: src/main/java/prometheus/command/PriorityCommand.java
 package prometheus.command;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import prometheus.PrometheusException;
 import prometheus.Storage;
-import prometheus.Ui;
 import prometheus.task.Priority;
 import prometheus.task.Task;
 import prometheus.TaskList;
 
+/**
+ * Represents a command to change the priority of a task, or of several tasks selected at once,
+ * such as "1..50" or "3,7,9".
+ */
 public class PriorityCommand extends Command {
-    private int index;
-    private Priority priority;
+    private final String selection;
+    private final Priority priority;
 
+    /**
+     * Constructs a PriorityCommand from the task selection and the priority to give the selected tasks.
+     *
+     * @param arguments The selection followed by one of high, medium or low
+     * @throws PrometheusException If the arguments are incomplete or the priority is invalid
+     */
     public PriorityCommand(String arguments) throws PrometheusException {
-        try {
-            String[] parts = arguments.split("\\s+", 2); // Split on whitespace
-
-            if (parts.length < 2) {
-                throw new PrometheusException("Please use format: priority <task number> <high/medium/low>");
-            }
-
-            // Parse task number
-            this.index = Integer.parseInt(parts[0].trim()) - 1;
-
-            // Parse priority (case-insensitive)
-            String priorityStr = parts[1].trim().toLowerCase();
-            this.priority = parsePriority(priorityStr);
-
-        } catch (NumberFormatException e) {
-            throw new PrometheusException("Please enter a valid task number.");
+        String trimmed = arguments.trim();
+        int split = Math.max(trimmed.lastIndexOf(' '), trimmed.lastIndexOf('\t'));
+        if (split < 0) {
+            throw new PrometheusException("Please use format: priority <task number> <high/medium/low>");
         }
+
+        this.selection = trimmed.substring(0, split);
+        this.priority = parsePriority(trimmed.substring(split + 1).toLowerCase());
     }
 
-    private Priority parsePriority(String priorityStr) throws PrometheusException {
+    static Priority parsePriority(String priorityStr) throws PrometheusException {
         switch (priorityStr) {
         case "high": return Priority.HIGH;
         case "medium": return Priority.MEDIUM;
@@ -42,32 +45,52 @@ public class PriorityCommand extends Command {
         }
     }
 
+    /**
+     * Executes the priority command by giving each selected task the new priority,
+     * recording the changes in storage as one transaction.
+     *
+     * @param tasks The task list containing the tasks to update
+     * @param storage The storage handler for saving the updated task list
+     * @return The updated tasks
+     * @throws PrometheusException If an index is invalid or task update fails
+     */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) throws PrometheusException {
-        if (index < 0 || index >= tasks.size()) {
-            throw new PrometheusException("Invalid task number! Please choose between 1 and " + tasks.size());
-        }
+    public CommandResult execute(TaskList tasks, Storage storage) throws PrometheusException {
+        List<Task> updated = new ArrayList<>();
+        String[] message = new String[1];
+        runTransaction(tasks, storage, () -> {
+            List<Integer> indices = parseIndices(selection, tasks.size());
+            Priority oldPriority = null;
+            for (int index : indices) {
+                oldPriority = tasks.get(index).getPriority();
+                Task task = tasks.setPriority(index, priority);
+                storage.recordPriority(tasks, task);
+                updated.add(task);
+            }
+            message[0] = describe(indices.get(0), oldPriority, updated);
+        });
+
+        String text = message[0];
+        return new CommandResult(CommandResult.Kind.UPDATED, updated, -1, () -> text);
+    }
 
-        Task task = tasks.get(index);
-        Priority oldPriority = task.getPriority();
-        task.setPriority(priority);
-        storage.save(tasks);
+    private String describe(int index, Priority oldPriority, List<Task> updated) {
+        if (updated.size() > 1) {
+            return "Priority set to " + priority + " for " + updated.size() + " tasks:" + formatTasks(updated);
+        }
 
-        String message;
+        Task task = updated.get(0);
         if (oldPriority == priority) {
-            message = "Task " + (index + 1) + " already has " + priority + " priority:\n  " + task;
-        } else {
-            message = "Priority updated for task " + (index + 1) + ":\n" +
-                    "  From: " + (oldPriority == Priority.MEDIUM ? "medium (default)" : oldPriority) + "\n" +
-                    "  To: " + priority + "\n" +
-                    "  " + task;
+            return "Task " + (index + 1) + " already has " + priority + " priority:\n  " + task;
         }
-
-        ui.showMessage(message);
+        return "Priority updated for task " + (index + 1) + ":\n" +
+                "  From: " + (oldPriority == Priority.MEDIUM ? "medium (default)" : oldPriority) + "\n" +
+                "  To: " + priority + "\n" +
+                "  " + task;
     }
 
     @Override
     public boolean isExit() {
         return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package prometheus.command;
+
+import java.util.List;
+
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Task;
+
+/**
+ * Represents a command to display the most important tasks.
+ * Tasks are taken from the high priority bucket down, in list order within a priority,
+ * so only the requested number of tasks is ever collected.
+ */
+public class TopCommand extends Command {
+    private final int count;
+
+    /**
+     * Constructs a TopCommand for the number of tasks given in the arguments.
+     *
+     * @param arguments The number of tasks to display
+     * @throws PrometheusException If the argument is not a positive number
+     */
+    public TopCommand(String arguments) throws PrometheusException {
+        try {
+            this.count = Integer.parseInt(arguments.trim());
+        } catch (NumberFormatException e) {
+            throw new PrometheusException("Please use format: top <number of tasks>");
+        }
+        if (count <= 0) {
+            throw new PrometheusException("Please enter a positive number of tasks.");
+        }
+    }
+
+    /**
+     * Executes the top command by listing up to the requested number of tasks, highest priority first.
+     *
+     * @param tasks The task list to display from
+     * @param storage The storage handler (not used in this command)
+     * @return The top tasks
+     */
+    @Override
+    public CommandResult execute(TaskList tasks, Storage storage) {
+        List<Task> topTasks = tasks.getTop(count);
+        if (topTasks.isEmpty()) {
+            return new CommandResult(CommandResult.Kind.LISTED, topTasks, -1, () -> "Your task list is empty!");
+        }
+        return listNumbered(topTasks, -1, "Here are your top " + topTasks.size() + " tasks:\n", 1);
+    }
+
+    /**
+     * Indicates whether this command exits the application.
+     *
+     * @return false as this command does not exit the application
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -8,9 +8,16 @@ import prometheus.Ui;
  */
 public class WelcomeCommand extends Command {
 
+    /**
+     * Executes the welcome command by greeting the user.
+     *
+     * @param tasks The task list (not used in this command)
+     * @param storage The storage handler (not used in this command)
+     * @return The greeting
+     */
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showWelcome();
+    public CommandResult execute(TaskList tasks, Storage storage) {
+        return CommandResult.message(CommandResult.Kind.INFO, Ui.WELCOME_MESSAGE);
     }
 
     /**
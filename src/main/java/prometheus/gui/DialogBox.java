@@ -1,75 +1,114 @@
 package prometheus.gui;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.text.Font;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * The box is built in code rather than loaded from FXML, so creating one costs a few node allocations
+ * instead of parsing and injecting a layout file. A dialog box can also be shown again with another
+ * message, so the transcript can reuse the same few boxes for whichever messages are visible.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final double PREF_WIDTH = 400.0;
+    private static final double PICTURE_SIZE = 48.0;
+    private static final Font TEXT_FONT = Font.font("System", 14.0);
 
-    private DialogBox(String text, Image img, boolean isError) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static final String USER_STYLE = "-fx-background-color: #e3f2fd; -fx-background-radius: 8;";
+    private static final String PROMETHEUS_STYLE = "-fx-background-color: #c8e6c9; -fx-background-radius: 8;";
+    private static final String ERROR_STYLE =
+            "-fx-background-color: #ffebee; -fx-background-radius: 8; -fx-text-fill: #d32f2f;";
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+
+    /**
+     * Creates an empty dialog box, laid out for a user message.
+     */
+    DialogBox() {
+        dialog.setMaxWidth(Double.MAX_VALUE);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setWrapText(true);
+        dialog.setFont(TEXT_FONT);
+        dialog.setPadding(new Insets(8.0, 12.0, 8.0, 12.0));
+        HBox.setHgrow(dialog, Priority.ALWAYS);
+
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxHeight(Double.MAX_VALUE);
+        setMaxWidth(Double.MAX_VALUE);
+        setMinWidth(Region.USE_PREF_SIZE);
+        setPrefWidth(PREF_WIDTH);
+        setStyle("-fx-background-radius: 10;");
+        setPadding(new Insets(8.0));
+        getChildren().setAll(dialog, displayPicture);
     }
 
     /**
      * Creates a dialog box for user messages.
      */
     public static DialogBox getUserDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img, false);
-        db.dialog.setStyle("-fx-background-color: #e3f2fd; -fx-background-radius: 8;");
+        DialogBox db = new DialogBox();
+        db.showUserMessage(text, img);
         return db;
     }
 
     /**
      * Creates a dialog box for Prometheus messages.
      */
-    public static DialogBox getPrometheusDialog(String text, Image img) {
-        boolean isError = text.toLowerCase().contains("error");
-        DialogBox db = new DialogBox(text, img, isError);
-        // Apply different styles for normal messages vs errors
-        if (isError) {
-            db.dialog.setStyle("-fx-background-color: #ffebee; -fx-background-radius: 8; -fx-text-fill: #d32f2f;");
-        } else {
-            db.dialog.setStyle("-fx-background-color: #c8e6c9; -fx-background-radius: 8;");
-        }
-        db.flip();
+    public static DialogBox getPrometheusDialog(String text, Image img, boolean isError) {
+        DialogBox db = new DialogBox();
+        db.showPrometheusMessage(text, img, isError);
         return db;
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Shows a user message, with the text on the left and the image on the right.
+     */
+    void showUserMessage(String text, Image img) {
+        show(text, img, USER_STYLE, false);
+    }
+
+    /**
+     * Shows a Prometheus message, with the image on the left and the text on the right.
+     * Errors are shown in red.
+     */
+    void showPrometheusMessage(String text, Image img, boolean isError) {
+        show(text, img, isError ? ERROR_STYLE : PROMETHEUS_STYLE, true);
+    }
+
+    private void show(String text, Image img, String style, boolean isFlipped) {
+        dialog.setText(text);
+        dialog.setStyle(style);
+        displayPicture.setImage(img);
+        if (isFlipped != (getChildren().get(0) == displayPicture)) {
+            flip();
+        }
+    }
+
+    /**
+     * Flips the dialog box such that the ImageView and the text swap sides.
      */
     private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        boolean isImageFirst = getChildren().get(0) == displayPicture;
+        if (isImageFirst) {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        } else {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        }
     }
 }
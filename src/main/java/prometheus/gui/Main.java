@@ -11,6 +11,8 @@ import prometheus.Prometheus;
 
 /**
  * A GUI for Prometheus using FXML.
+ * The number of messages the window keeps is {@value MainWindow#DEFAULT_RETENTION_LIMIT}
+ * unless overridden by the "prometheus.transcriptLimit" system property.
  */
 public class Main extends Application {
 
@@ -26,7 +28,10 @@ public class Main extends Application {
             stage.setTitle("Prometheus Task Manager");
             stage.setMinWidth(320);
             stage.setMinHeight(400);
-            fxmlLoader.<MainWindow>getController().setPrometheus(prometheus);
+            MainWindow mainWindow = fxmlLoader.getController();
+            mainWindow.setRetentionLimit(Integer.getInteger("prometheus.transcriptLimit",
+                    MainWindow.DEFAULT_RETENTION_LIMIT));
+            mainWindow.setPrometheus(prometheus);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
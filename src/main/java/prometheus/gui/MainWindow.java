@@ -1,59 +1,150 @@
 package prometheus.gui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
-import javafx.scene.layout.VBox;
 import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
 import prometheus.Prometheus;
+import prometheus.command.CommandResult;
 
 /**
  * Controller for the main GUI.
+ * The conversation is shown in a list view, which only lays out the messages that are visible,
+ * so the window stays as quick to draw however long the session runs. Only the most recent
+ * messages are kept, up to a retention limit, so the memory the transcript uses is bounded too.
+ * Commands are run and their replies rendered on a background thread, so a slow command never
+ * freezes the window. They run one at a time in the order they were entered, and each reply is
+ * added to the transcript on the JavaFX thread once it is ready. While a command takes longer
+ * than a moment, a progress indicator is shown next to the input.
  */
 public class MainWindow extends StackPane {
+    /**
+     * Number of messages kept in the transcript unless another limit is set.
+     */
+    public static final int DEFAULT_RETENTION_LIMIT = 1000;
+
+    /**
+     * Time a command may run before the progress indicator is shown, so quick commands do not make it flicker.
+     */
+    private static final Duration PENDING_INDICATOR_DELAY = Duration.millis(150);
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<TranscriptEntry> transcript;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator pendingIndicator;
 
     private Prometheus prometheus;
+    private final ObservableList<TranscriptEntry> entries = FXCollections.observableArrayList();
+    private int retentionLimit = DEFAULT_RETENTION_LIMIT;
+
+    /**
+     * Runs commands in the order they are entered, on a daemon thread so it never keeps the application open.
+     */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "prometheus-gui-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Number of commands submitted whose replies have not been shown yet. Only used on the JavaFX thread.
+     */
+    private int pendingCommands;
+    private final PauseTransition pendingIndicatorDelay = new PauseTransition(PENDING_INDICATOR_DELAY);
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/oppenheimer.png"));
     private Image prometheusImage = new Image(this.getClass().getResourceAsStream("/images/Einstein.png"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setItems(entries);
+        transcript.setCellFactory(listView -> new TranscriptCell(userImage, prometheusImage));
+        pendingIndicator.managedProperty().bind(pendingIndicator.visibleProperty());
+        pendingIndicator.setVisible(false);
+        pendingIndicatorDelay.setOnFinished(event -> pendingIndicator.setVisible(pendingCommands > 0));
     }
 
     /** Injects the Duke instance */
     public void setPrometheus(Prometheus p) {
         prometheus = p;
         // Show welcome message
-        String welcomeMsg = prometheus.getResponse("welcome");
-        dialogContainer.getChildren().add(
-                DialogBox.getPrometheusDialog(welcomeMsg, prometheusImage)
-        );
+        submit("welcome");
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Sets the number of most recent messages kept in the transcript, dropping older ones at once if there are more.
+     *
+     * @param retentionLimit The number of messages to keep, at least 2 so that a command and its reply both fit
+     */
+    public void setRetentionLimit(int retentionLimit) {
+        assert retentionLimit >= 2 : "Retention limit must keep at least one exchange";
+        this.retentionLimit = retentionLimit;
+        trim();
+    }
+
+    /**
+     * Adds an entry echoing user input to the transcript and submits the input to be run,
+     * so that Duke's reply follows once it is ready. Clears the user input at once.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = prometheus.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getPrometheusDialog(response, prometheusImage)
-        );
         userInput.clear();
+        append(TranscriptEntry.fromUser(input));
+        submit(input);
+    }
+
+    /**
+     * Runs a command on the command thread and adds its reply to the transcript when it is ready.
+     */
+    private void submit(String input) {
+        if (pendingCommands++ == 0) {
+            pendingIndicatorDelay.playFromStart();
+        }
+        commandExecutor.execute(() -> {
+            TranscriptEntry reply;
+            try {
+                reply = TranscriptEntry.fromPrometheus(prometheus.execute(input));
+            } catch (RuntimeException e) {
+                reply = TranscriptEntry.fromPrometheus(CommandResult.error("Something went wrong: " + e));
+            }
+            TranscriptEntry entry = reply;
+            Platform.runLater(() -> showReply(entry));
+        });
+    }
+
+    private void showReply(TranscriptEntry reply) {
+        append(reply);
+        if (--pendingCommands == 0) {
+            pendingIndicatorDelay.stop();
+            pendingIndicator.setVisible(false);
+        }
+    }
+
+    private void append(TranscriptEntry entry) {
+        entries.add(entry);
+        trim();
+        transcript.scrollTo(entries.size() - 1);
+    }
+
+    private void trim() {
+        if (entries.size() > retentionLimit) {
+            entries.remove(0, entries.size() - retentionLimit);
+        }
     }
 }
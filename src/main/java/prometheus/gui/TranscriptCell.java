@@ -0,0 +1,51 @@
+package prometheus.gui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * Shows one entry of the transcript in a dialog box.
+ * The list view only creates enough cells to fill the window and moves them between entries as the
+ * transcript scrolls, so each cell builds its dialog box once and then shows one entry after another in it.
+ */
+class TranscriptCell extends ListCell<TranscriptEntry> {
+    /**
+     * Width kept free beside the dialog box for the scroll bar.
+     */
+    private static final double SCROLL_BAR_ALLOWANCE = 16;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image prometheusImage;
+
+    /**
+     * Creates a cell that shows entries with the given images.
+     *
+     * @param userImage The image shown next to user messages
+     * @param prometheusImage The image shown next to Prometheus messages
+     */
+    TranscriptCell(Image userImage, Image prometheusImage) {
+        this.userImage = userImage;
+        this.prometheusImage = prometheusImage;
+        // Without a preferred width of its own, the cell takes the width of the list and wraps its text to fit
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(TranscriptEntry entry, boolean isEmpty) {
+        super.updateItem(entry, isEmpty);
+        if (isEmpty || entry == null) {
+            setGraphic(null);
+            return;
+        }
+        if (entry.isUser()) {
+            dialogBox.showUserMessage(entry.getText(), userImage);
+        } else {
+            dialogBox.showPrometheusMessage(entry.getText(), prometheusImage, entry.isError());
+        }
+        setGraphic(dialogBox);
+    }
+}
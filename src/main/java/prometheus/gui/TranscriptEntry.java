@@ -0,0 +1,52 @@
+package prometheus.gui;
+
+import prometheus.command.CommandResult;
+
+/**
+ * Represents one message in the conversation shown by the main window.
+ * Entries hold only the text, who said it and whether it reports an error, so the transcript can keep
+ * many of them cheaply; dialog boxes are created for the few that are visible at a time.
+ */
+public class TranscriptEntry {
+    private final String text;
+    private final boolean isUser;
+    private final boolean isError;
+
+    private TranscriptEntry(String text, boolean isUser, boolean isError) {
+        this.text = text;
+        this.isUser = isUser;
+        this.isError = isError;
+    }
+
+    /**
+     * Creates an entry for a message typed by the user.
+     */
+    public static TranscriptEntry fromUser(String text) {
+        return new TranscriptEntry(text, true, false);
+    }
+
+    /**
+     * Creates an entry for a reply from Prometheus, rendering the result of the command it replies to.
+     * Must not be called on the JavaFX thread if rendering the result may be slow.
+     */
+    public static TranscriptEntry fromPrometheus(CommandResult result) {
+        return new TranscriptEntry(result.render(), false, result.isError());
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isUser() {
+        return isUser;
+    }
+
+    /**
+     * Returns whether the entry is a reply reporting that a command failed.
+     *
+     * @return true if the entry is an error
+     */
+    public boolean isError() {
+        return isError;
+    }
+}
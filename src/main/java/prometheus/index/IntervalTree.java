@@ -0,0 +1,170 @@
+package prometheus.index;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import prometheus.task.Task;
+
+/**
+ * Set of tasks spanning a time interval, supporting overlap queries.
+ * The intervals are kept in a treap ordered by start time, where every node also records the
+ * latest end time in its subtree. Subtrees that end before a query starts are skipped, so an
+ * overlap query visits O(log n) nodes besides those it reports, in expectation.
+ */
+public class IntervalTree {
+    private final Map<Task, Node> nodes = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+    private long nextOrder = 0;
+
+    /**
+     * Adds a task spanning the given interval.
+     *
+     * @param task The task to add
+     * @param from The start of the interval
+     * @param to The end of the interval, not before the start
+     */
+    public void add(Task task, LocalDateTime from, LocalDateTime to) {
+        assert !from.isAfter(to) : "Interval cannot end before it starts";
+        Node node = new Node(task, from, to, nextOrder++, random.nextInt());
+        nodes.put(task, node);
+        Node[] parts = split(root, node);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Removes a task, if present.
+     *
+     * @param task The task to remove
+     */
+    public void remove(Task task) {
+        Node node = nodes.remove(task);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Adds every task whose interval overlaps the closed range [start, end] to the given collection.
+     *
+     * @param start The start of the range
+     * @param end The end of the range
+     * @param result The collection to add matching tasks to
+     */
+    public void findOverlapping(LocalDateTime start, LocalDateTime end, Collection<Task> result) {
+        findOverlapping(root, start, end, result);
+    }
+
+    private static void findOverlapping(Node node, LocalDateTime start, LocalDateTime end, Collection<Task> result) {
+        if (node == null || node.maxTo.isBefore(start)) {
+            return;
+        }
+        findOverlapping(node.left, start, end, result);
+        if (node.from.isAfter(end)) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (!node.to.isBefore(start)) {
+            result.add(node.task);
+        }
+        findOverlapping(node.right, start, end, result);
+    }
+
+    /**
+     * Splits a subtree into the nodes ordered before the key and the rest.
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (node.compareTo(key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+
+    /**
+     * Joins two subtrees where every node of the first is ordered before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.heapPriority > second.heapPriority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.update();
+        return second;
+    }
+
+    private static Node delete(Node node, Node key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = node.compareTo(key);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.right = delete(node.right, key);
+        } else {
+            node.left = delete(node.left, key);
+        }
+        node.update();
+        return node;
+    }
+
+    private static class Node implements Comparable<Node> {
+        private final Task task;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final long order;
+        private final int heapPriority;
+        private LocalDateTime maxTo;
+        private Node left;
+        private Node right;
+
+        Node(Task task, LocalDateTime from, LocalDateTime to, long order, int heapPriority) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+            this.heapPriority = heapPriority;
+            this.maxTo = to;
+        }
+
+        /**
+         * Recomputes the latest end time of this subtree from its children.
+         */
+        void update() {
+            maxTo = to;
+            if (left != null && left.maxTo.isAfter(maxTo)) {
+                maxTo = left.maxTo;
+            }
+            if (right != null && right.maxTo.isAfter(maxTo)) {
+                maxTo = right.maxTo;
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int comparison = from.compareTo(other.from);
+            return comparison != 0 ? comparison : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package prometheus.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import prometheus.task.Priority;
+import prometheus.task.Task;
+
+/**
+ * Buckets of tasks by priority, each kept in list order.
+ * Listing one priority walks only its bucket, and the top tasks are taken from the
+ * highest bucket down, so neither needs to sort the whole list.
+ */
+public class PriorityIndex {
+    private final Map<Priority, TreeSet<Task>> buckets = new EnumMap<>(Priority.class);
+
+    /**
+     * Constructs an empty index whose buckets are ordered by the given comparator.
+     *
+     * @param order The order of tasks within a bucket
+     */
+    public PriorityIndex(Comparator<Task> order) {
+        for (Priority priority : Priority.values()) {
+            buckets.put(priority, new TreeSet<>(order));
+        }
+    }
+
+    /**
+     * Adds a task to the bucket of its current priority.
+     *
+     * @param task The task to index
+     */
+    public void add(Task task) {
+        buckets.get(task.getPriority()).add(task);
+    }
+
+    /**
+     * Removes a task from the bucket of its current priority.
+     *
+     * @param task The task to remove
+     */
+    public void remove(Task task) {
+        buckets.get(task.getPriority()).remove(task);
+    }
+
+    /**
+     * Changes the priority of an indexed task, moving it to the matching bucket.
+     *
+     * @param task The task to update
+     * @param priority The new priority
+     */
+    public void setPriority(Task task, Priority priority) {
+        remove(task);
+        task.setPriority(priority);
+        add(task);
+    }
+
+    /**
+     * Returns a read-only view of the tasks with the given priority, in list order.
+     *
+     * @param priority The priority to look up
+     * @return The tasks with that priority
+     */
+    public Collection<Task> get(Priority priority) {
+        return Collections.unmodifiableSet(buckets.get(priority));
+    }
+
+    /**
+     * Returns up to the given number of tasks, highest priority first and in list order within a priority.
+     *
+     * @param count The maximum number of tasks to return
+     * @return The top tasks
+     */
+    public List<Task> getTop(int count) {
+        List<Task> result = new ArrayList<>(Math.min(count, 1024));
+        Priority[] priorities = Priority.values();
+        for (int i = priorities.length - 1; i >= 0 && result.size() < count; i--) {
+            for (Task task : buckets.get(priorities[i])) {
+                if (result.size() == count) {
+                    break;
+                }
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to the given number of tasks, highest priority first, by scanning tasks given in list order
+     * once per priority, without the index.
+     *
+     * @param count The maximum number of tasks to return
+     * @param tasks The tasks to scan, in list order
+     * @return The top tasks
+     */
+    public static List<Task> scanTop(int count, Iterable<Task> tasks) {
+        List<Task> result = new ArrayList<>(Math.min(count, 1024));
+        Priority[] priorities = Priority.values();
+        for (int i = priorities.length - 1; i >= 0 && result.size() < count; i--) {
+            for (Task task : tasks) {
+                if (result.size() == count) {
+                    break;
+                }
+                if (task.getPriority() == priorities[i]) {
+                    result.add(task);
+                }
+            }
+        }
+        return result;
+    }
+}
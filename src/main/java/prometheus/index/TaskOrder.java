@@ -0,0 +1,239 @@
+package prometheus.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import prometheus.task.Task;
+
+/**
+ * The order of the tasks in the list, addressable by position in logarithmic time.
+ * Tasks are appended to an array of slots in increasing ID order, and a removed task only empties
+ * its slot, so no later task has to shift. A Fenwick tree over the occupied slots turns a position
+ * into a slot and a slot back into a position. Slots are compacted once most of them are empty,
+ * which keeps memory proportional to the number of tasks at an amortised constant cost per removal.
+ */
+public class TaskOrder implements Iterable<Task> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Task[] slots = new Task[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    /**
+     * Fenwick tree over slot occupancy, 1-based, so tree[i] counts the tasks in slots (i - lowbit(i), i].
+     */
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int used;
+    private int size;
+
+    /**
+     * Appends a task after every other task.
+     * Its ID must be greater than that of every task appended before it.
+     *
+     * @param task The task to append
+     */
+    public void add(Task task) {
+        assert used == 0 || task.getId() > ids[used - 1] : "Task IDs must increase in list order";
+        if (used == slots.length) {
+            resize(size * 2 < used ? slots.length : slots.length * 2);
+        }
+        slots[used] = task;
+        ids[used] = task.getId();
+        used++;
+        size++;
+        for (int i = used; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+    }
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param position The 0-based position
+     * @return The task at that position
+     */
+    public Task get(int position) {
+        return slots[slotAt(position)];
+    }
+
+    /**
+     * Removes the task at the given position, moving every later task one position forward.
+     *
+     * @param position The 0-based position
+     * @return The removed task
+     */
+    public Task remove(int position) {
+        int slot = slotAt(position);
+        Task task = slots[slot];
+        slots[slot] = null;
+        size--;
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        if (used > INITIAL_CAPACITY && size * 4 < used) {
+            resize(Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        return task;
+    }
+
+    /**
+     * Puts a removed task back at the position its ID gives it among the remaining tasks.
+     * This is constant time while the task's slot is still reserved, and linear time if the slots
+     * have been compacted since the task was removed.
+     *
+     * @param task The task to put back
+     */
+    public void restore(Task task) {
+        int slot = Arrays.binarySearch(ids, 0, used, task.getId());
+        if (slot >= 0) {
+            assert slots[slot] == null : "Task is already in the order";
+            slots[slot] = task;
+            size++;
+            for (int i = slot + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+            return;
+        }
+        if (-slot - 1 == used) {
+            add(task);
+            return;
+        }
+
+        if (used == slots.length) {
+            resize(slots.length * 2);
+        }
+        int insertion = -Arrays.binarySearch(ids, 0, used, task.getId()) - 1;
+        System.arraycopy(slots, insertion, slots, insertion + 1, used - insertion);
+        System.arraycopy(ids, insertion, ids, insertion + 1, used - insertion);
+        slots[insertion] = task;
+        ids[insertion] = task.getId();
+        used++;
+        size++;
+        resize(slots.length);
+    }
+
+    /**
+     * Returns the position of the task with the given ID.
+     *
+     * @param id The ID of the task
+     * @return The 0-based position of the task, or -1 if it is not in the list
+     */
+    public int positionOf(long id) {
+        int slot = Arrays.binarySearch(ids, 0, used, id);
+        if (slot < 0 || slots[slot] == null) {
+            return -1;
+        }
+        int count = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count - 1;
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return The number of tasks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the tasks in list order.
+     *
+     * @return A new list of the tasks
+     */
+    public ArrayList<Task> toList() {
+        ArrayList<Task> result = new ArrayList<>(size);
+        for (Task task : this) {
+            result.add(task);
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the tasks in list order.
+     * The order must not be changed while the iterator is in use.
+     *
+     * @return The iterator
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int slot = nextOccupied(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < used;
+            }
+
+            @Override
+            public Task next() {
+                if (slot >= used) {
+                    throw new NoSuchElementException();
+                }
+                Task task = slots[slot];
+                slot = nextOccupied(slot + 1);
+                return task;
+            }
+        };
+    }
+
+    private int nextOccupied(int slot) {
+        while (slot < used && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot holding the task at the given position by descending the Fenwick tree.
+     */
+    private int slotAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        int index = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Moves the tasks into new arrays of the given capacity without any empty slots between them,
+     * and rebuilds the Fenwick tree over them in linear time.
+     */
+    private void resize(int capacity) {
+        Task[] newSlots = new Task[capacity];
+        long[] newIds = new long[capacity];
+        int count = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (slots[slot] != null) {
+                newSlots[count] = slots[slot];
+                newIds[count] = ids[slot];
+                count++;
+            }
+        }
+
+        int[] newTree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            newTree[i] += i <= count ? 1 : 0;
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        slots = newSlots;
+        ids = newIds;
+        tree = newTree;
+        used = count;
+    }
+}
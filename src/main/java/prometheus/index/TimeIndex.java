@@ -0,0 +1,110 @@
+package prometheus.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import prometheus.task.Deadline;
+import prometheus.task.Event;
+import prometheus.task.Task;
+
+/**
+ * Index of the dated tasks, answering which tasks fall within a time range.
+ * Deadlines are kept in a sorted map keyed by their due time, and events in an
+ * {@link IntervalTree} over their start and end times. Todos are not indexed.
+ */
+public class TimeIndex {
+    private final TreeMap<LocalDateTime, Set<Task>> deadlines = new TreeMap<>();
+    private final IntervalTree events = new IntervalTree();
+
+    /**
+     * Adds a task to the index if it is a deadline or an event.
+     *
+     * @param task The task to index
+     */
+    public void add(Task task) {
+        if (task instanceof Deadline deadline) {
+            deadlines.computeIfAbsent(deadline.getBy(), key -> new HashSet<>()).add(task);
+        } else if (task instanceof Event event) {
+            events.add(task, event.getFrom(), event.getTo());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove
+     */
+    public void remove(Task task) {
+        if (task instanceof Deadline deadline) {
+            Set<Task> due = deadlines.get(deadline.getBy());
+            if (due != null) {
+                due.remove(task);
+                if (due.isEmpty()) {
+                    deadlines.remove(deadline.getBy());
+                }
+            }
+        } else if (task instanceof Event) {
+            events.remove(task);
+        }
+    }
+
+    /**
+     * Returns the deadlines due within the closed range [start, end] and the events overlapping it,
+     * in no particular order.
+     *
+     * @param start The start of the range
+     * @param end The end of the range
+     * @return The matching tasks
+     */
+    public List<Task> find(LocalDateTime start, LocalDateTime end) {
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> due : deadlines.subMap(start, true, end, true).values()) {
+            result.addAll(due);
+        }
+        events.findOverlapping(start, end, result);
+        return result;
+    }
+
+    /**
+     * Returns the deadlines due within the closed range [start, end] and the events overlapping it
+     * by scanning the given tasks, without the index.
+     *
+     * @param start The start of the range
+     * @param end The end of the range
+     * @param tasks The tasks to scan
+     * @return The matching tasks, in the order they were scanned
+     */
+    public static List<Task> scan(LocalDateTime start, LocalDateTime end, Iterable<Task> tasks) {
+        List<Task> result = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task instanceof Deadline deadline) {
+                if (!deadline.getBy().isBefore(start) && !deadline.getBy().isAfter(end)) {
+                    result.add(task);
+                }
+            } else if (task instanceof Event event) {
+                if (!event.getFrom().isAfter(end) && !event.getTo().isBefore(start)) {
+                    result.add(task);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time a dated task is scheduled at: the due time of a deadline or the start of an event.
+     *
+     * @param task A deadline or an event
+     * @return The scheduled time of the task
+     */
+    public static LocalDateTime startOf(Task task) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getBy();
+        }
+        assert task instanceof Event : "Only deadlines and events are scheduled";
+        return ((Event) task).getFrom();
+    }
+}
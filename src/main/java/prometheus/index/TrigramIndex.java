@@ -0,0 +1,133 @@
+package prometheus.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import prometheus.task.Task;
+
+/**
+ * Index from every three-character sequence of the lowercased task descriptions to the tasks containing it.
+ * A keyword can only occur in a description that contains all of the keyword's trigrams, so a search
+ * intersects the posting lists of those trigrams and verifies the few remaining candidates.
+ * This keeps the substring semantics of a scan, including matches across word boundaries.
+ * Keywords shorter than three characters have no trigrams and fall back to a scan.
+ */
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Set<Task>> postings = new HashMap<>();
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task The task to index
+     */
+    public void add(Task task) {
+        for (long trigram : trigrams(task.getDescription().toLowerCase())) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove
+     */
+    public void remove(Task task) {
+        for (long trigram : trigrams(task.getDescription().toLowerCase())) {
+            Set<Task> posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed tasks whose lowercased description contains the keyword, in no particular order.
+     *
+     * @param keyword The lowercased keyword to search for
+     * @param allTasks Every indexed task, scanned when the keyword is too short to have trigrams
+     * @return The matching tasks
+     */
+    public Collection<Task> find(String keyword, Iterable<Task> allTasks) {
+        if (keyword.length() < GRAM_LENGTH) {
+            return verify(keyword, allTasks);
+        }
+
+        List<Set<Task>> lists = new ArrayList<>();
+        for (long trigram : trigrams(keyword)) {
+            Set<Task> posting = postings.get(trigram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort((first, second) -> Integer.compare(first.size(), second.size()));
+
+        List<Task> candidates = new ArrayList<>();
+        for (Task task : lists.get(0)) {
+            if (isInAll(task, lists)) {
+                candidates.add(task);
+            }
+        }
+        return verify(keyword, candidates);
+    }
+
+    /**
+     * Returns the tasks whose lowercased description contains the keyword by scanning them, without the index.
+     *
+     * @param keyword The lowercased keyword to search for
+     * @param tasks The tasks to scan
+     * @return The matching tasks, in the order they were scanned
+     */
+    public static List<Task> scan(String keyword, Iterable<Task> tasks) {
+        return verify(keyword, tasks);
+    }
+
+    private static boolean isInAll(Task task, List<Set<Task>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Task> verify(String keyword, Iterable<Task> candidates) {
+        List<Task> result = new ArrayList<>();
+        for (Task task : candidates) {
+            if (task.getDescription().toLowerCase().contains(keyword)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the distinct trigrams of the text, each packed into a long.
+     */
+    private static long[] trigrams(String text) {
+        int count = Math.max(0, text.length() - GRAM_LENGTH + 1);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
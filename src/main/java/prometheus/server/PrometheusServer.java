@@ -0,0 +1,241 @@
+package prometheus.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import prometheus.Prometheus;
+import prometheus.command.CommandResult;
+
+/**
+ * Serves a Prometheus instance over HTTP on the loopback interface, so that other programs on the same
+ * machine can drive it. Each command is sent as the UTF-8 body of a POST request to {@code /command},
+ * and the response body is the text the command would have shown, as rendered from the result of
+ * {@link Prometheus#execute(String)}. Failed commands are answered with status 422 and the error message.
+ * Each request is handled on its own virtual thread when the JVM supports them, and on a pooled
+ * platform thread otherwise. Requests run concurrently, relying on the task list to serialize changes.
+ * Listening on loopback alone does not keep out web pages open in a browser on the same machine,
+ * so requests must carry the server's token in the {@value #TOKEN_HEADER} header, which browsers
+ * cannot add to a cross-origin request without the server's consent. Requests sent by a browser on
+ * behalf of a page, which carry an Origin header, and requests for a host name other than the
+ * loopback address, as after DNS rebinding, are refused as well. Import and export files are
+ * confined to a directory next to the task file.
+ */
+public class PrometheusServer {
+    /**
+     * Port used when none is given on the command line.
+     */
+    public static final int DEFAULT_PORT = 8765;
+
+    /**
+     * Path that commands are posted to.
+     */
+    public static final String COMMAND_PATH = "/command";
+
+    /**
+     * Request header that carries the server's token.
+     */
+    public static final String TOKEN_HEADER = "X-Prometheus-Token";
+
+    /**
+     * Longest command accepted, in bytes. Larger requests are rejected without being read in full.
+     */
+    private static final int MAX_COMMAND_BYTES = 1 << 20;
+
+    private static final int TOKEN_BYTES = 16;
+
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_UNAUTHORIZED = 401;
+    private static final int STATUS_FORBIDDEN = 403;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_TOO_LARGE = 413;
+    private static final int STATUS_UNPROCESSABLE = 422;
+
+    private final Prometheus prometheus;
+    private final byte[] token;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a server for the given instance, bound to a port on the loopback interface,
+     * and confines the files the instance imports and exports. The server does not accept requests
+     * until it is started.
+     *
+     * @param prometheus The instance that runs the commands
+     * @param port The port to listen on, or 0 for any free port
+     * @param token The token that requests must carry
+     * @throws IOException If the port cannot be bound
+     */
+    public PrometheusServer(Prometheus prometheus, int port, String token) throws IOException {
+        assert token != null && !token.isEmpty() : "Token cannot be empty";
+        this.prometheus = prometheus;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        prometheus.confineTransfers();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newPerRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts accepting requests on a background thread.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for those in progress to finish and releases the port.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns a random token that is hard to guess.
+     *
+     * @return The token, as hexadecimal digits
+     */
+    public static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().equals(COMMAND_PATH)) {
+                reply(exchange, STATUS_NOT_FOUND, "Commands must be posted to " + COMMAND_PATH);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                reply(exchange, STATUS_METHOD_NOT_ALLOWED, "Commands must be sent with POST");
+                return;
+            }
+            if (exchange.getRequestHeaders().containsKey("Origin")
+                    || !isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                reply(exchange, STATUS_FORBIDDEN, "Commands are only accepted from programs on this machine");
+                return;
+            }
+            if (!hasToken(exchange.getRequestHeaders().getFirst(TOKEN_HEADER))) {
+                reply(exchange, STATUS_UNAUTHORIZED, "Commands must carry the server's token in " + TOKEN_HEADER);
+                return;
+            }
+
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(MAX_COMMAND_BYTES + 1);
+            }
+            if (body.length > MAX_COMMAND_BYTES) {
+                reply(exchange, STATUS_TOO_LARGE, "Commands may be at most " + MAX_COMMAND_BYTES + " bytes long");
+                return;
+            }
+
+            CommandResult result = prometheus.execute(new String(body, StandardCharsets.UTF_8).trim());
+            reply(exchange, result.isError() ? STATUS_UNPROCESSABLE : STATUS_OK, result.render());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean hasToken(String given) {
+        return given != null && MessageDigest.isEqual(token, given.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns whether a Host header names the loopback interface, with or without a port.
+     */
+    static boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        int portStart = host.startsWith("[") ? host.indexOf(']') + 1 : host.indexOf(':');
+        String name = portStart > 0 ? host.substring(0, portStart) : host;
+        if (portStart > 0 && portStart < host.length() && host.charAt(portStart) != ':') {
+            return false;
+        }
+        return name.equalsIgnoreCase("localhost") || name.equals("127.0.0.1") || name.equals("[::1]");
+    }
+
+    private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread if the JVM supports them.
+     * They are looked up reflectively so that the server still runs on Java 17, where requests
+     * fall back to a cached pool of daemon platform threads.
+     */
+    static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(task, "prometheus-server-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    /**
+     * Runs a server until the JVM is stopped.
+     * Takes an optional port, which defaults to {@value #DEFAULT_PORT}, and an optional path to the task file.
+     * Requests must carry the token given by the "prometheus.serverToken" system property,
+     * or a random token that is printed at start-up if the property is not set.
+     * Unless "sun.net.httpserver.nodelay" is set on the command line, it is switched on before the server
+     * is created. Responses are written as headers then body, which Nagle's algorithm would otherwise hold
+     * back until the client's delayed acknowledgement, adding about 40 ms to every request on a kept-alive
+     * connection. The property applies to every server in the JVM, so it is only set by this launcher.
+     *
+     * @param args The port and the task file path, both optional
+     * @throws IOException If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String filePath = args.length > 1 ? args[1] : "./data/Prometheus.txt";
+        String token = System.getProperty("prometheus.serverToken");
+        if (token == null || token.isEmpty()) {
+            token = newToken();
+        }
+        PrometheusServer server = new PrometheusServer(new Prometheus(filePath), port, token);
+        server.start();
+        System.out.println("Prometheus is listening on http://localhost:" + server.getPort() + COMMAND_PATH);
+        System.out.println("Send the header \"" + TOKEN_HEADER + ": " + token + "\" with every command.");
+    }
+}
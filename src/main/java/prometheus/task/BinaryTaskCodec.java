@@ -0,0 +1,184 @@
+package prometheus.task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import prometheus.PrometheusException;
+
+/**
+ * Encodes and decodes tasks in a compact binary file format.
+ * The file starts with a four byte magic number, a version byte and the number of records.
+ * Each record holds:
+ * - a type byte ('T', 'D' or 'E')
+ * - the task ID as a long, 0 if none has been assigned (from version 2)
+ * - a flags byte, with bit 0 set when the task is done and bits 1-2 holding the priority ordinal
+ * - the description as a length-prefixed UTF-8 string
+ * - one (deadline) or two (event) date-times as minutes since the epoch in UTC
+ */
+public class BinaryTaskCodec {
+    /**
+     * Magic number identifying a binary task file. The leading non-ASCII byte can never start a text record.
+     */
+    private static final byte[] MAGIC = {(byte) 0x89, 'P', 'R', 'M'};
+    private static final int VERSION = 2;
+    private static final int FIRST_VERSION_WITH_IDS = 2;
+    private static final int DONE_FLAG = 1;
+    private static final int PRIORITY_SHIFT = 1;
+    private static final int PRIORITY_MASK = 0b11;
+    private static final int MAX_DESCRIPTION_LENGTH = 1 << 24;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the given leading bytes of a file mark it as a binary task file.
+     *
+     * @param header The first bytes of the file
+     * @param length The number of valid bytes in the header
+     * @return true if the file is in the binary format
+     */
+    public static boolean hasMagic(byte[] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    /**
+     * Writes the header followed by one record per task.
+     *
+     * @param tasks The tasks to write
+     * @param out The stream to write to
+     * @throws IOException If the stream cannot be written
+     */
+    public static void write(List<Task> tasks, DataOutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            writeTask(task, out);
+        }
+    }
+
+    private static void writeTask(Task task, DataOutputStream out) throws IOException {
+        int flags = (task.isDone() ? DONE_FLAG : 0) | (task.getPriority().ordinal() << PRIORITY_SHIFT);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+
+        if (task instanceof Deadline deadline) {
+            out.writeByte('D');
+            out.writeLong(task.getId());
+            writeText(flags, description, out);
+            out.writeLong(toEpochMinute(deadline.getBy()));
+        } else if (task instanceof Event event) {
+            out.writeByte('E');
+            out.writeLong(task.getId());
+            writeText(flags, description, out);
+            out.writeLong(toEpochMinute(event.getFrom()));
+            out.writeLong(toEpochMinute(event.getTo()));
+        } else {
+            out.writeByte('T');
+            out.writeLong(task.getId());
+            writeText(flags, description, out);
+        }
+    }
+
+    private static void writeText(int flags, byte[] description, DataOutputStream out) throws IOException {
+        out.writeByte(flags);
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    /**
+     * Reads a whole binary task file, including its header. Files written before IDs were stored
+     * are still accepted, leaving their tasks without IDs.
+     *
+     * @param in The stream to read from, positioned at the start of the file
+     * @return The decoded tasks in file order
+     * @throws IOException If the stream cannot be read
+     * @throws PrometheusException If the file is truncated, of an unknown version or holds a malformed record
+     */
+    public static ArrayList<Task> read(DataInputStream in) throws IOException, PrometheusException {
+        try {
+            byte[] header = new byte[MAGIC.length];
+            in.readFully(header);
+            if (!hasMagic(header, header.length)) {
+                throw new PrometheusException("Not a binary task file");
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new PrometheusException("Unsupported task file version: " + version);
+            }
+
+            int count = in.readInt();
+            if (count < 0) {
+                throw new PrometheusException("Invalid task count: " + count);
+            }
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                try {
+                    tasks.add(readTask(in, version >= FIRST_VERSION_WITH_IDS));
+                } catch (PrometheusException e) {
+                    throw new PrometheusException("Record " + (i + 1) + ": " + e.getMessage());
+                }
+            }
+            return tasks;
+        } catch (EOFException e) {
+            throw new PrometheusException("Task file is truncated");
+        }
+    }
+
+    private static Task readTask(DataInputStream in, boolean hasId) throws IOException, PrometheusException {
+        byte type = in.readByte();
+        long id = hasId ? in.readLong() : 0;
+        if (id < 0) {
+            throw new PrometheusException("Invalid task ID: " + id);
+        }
+        int flags = in.readUnsignedByte();
+        int length = in.readInt();
+        if (length <= 0 || length > MAX_DESCRIPTION_LENGTH) {
+            throw new PrometheusException("Invalid description length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        Task task;
+        try {
+            task = switch (type) {
+            case 'T' -> new Todo(description);
+            case 'D' -> new Deadline(description, fromEpochMinute(in.readLong()));
+            case 'E' -> new Event(description, fromEpochMinute(in.readLong()), fromEpochMinute(in.readLong()));
+            default -> throw new PrometheusException("Unknown task type: " + type);
+            };
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new PrometheusException("Invalid date: " + e.getMessage());
+        }
+
+        int priority = (flags >> PRIORITY_SHIFT) & PRIORITY_MASK;
+        if (priority >= Priority.values().length) {
+            throw new PrometheusException("Invalid priority: " + priority);
+        }
+        task.setPriority(Priority.values()[priority]);
+        if (id != 0) {
+            task.setId(id);
+        }
+        if ((flags & DONE_FLAG) != 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(Math.multiplyExact(epochMinute, 60), 0, ZoneOffset.UTC);
+    }
+}
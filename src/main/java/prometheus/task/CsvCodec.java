@@ -0,0 +1,111 @@
+package prometheus.task;
+
+import prometheus.PrometheusException;
+
+/**
+ * Splits and joins rows of comma-separated values, quoted as in RFC 4180: a field containing a comma,
+ * a quote or a line break is enclosed in quotes, and quotes within it are doubled.
+ * Rows are handled one line at a time, so a quoted field cannot span lines.
+ */
+final class CsvCodec {
+    private CsvCodec() {
+    }
+
+    /**
+     * Splits a row into its fields, removing any quoting.
+     *
+     * @param line The row, without its line separator
+     * @param maxFields The largest number of fields a row may have
+     * @return The fields, followed by nulls for any missing ones, so the array always has maxFields elements
+     * @throws PrometheusException If the row has too many fields or a quote is unbalanced
+     */
+    static String[] split(String line, int maxFields) throws PrometheusException {
+        String[] fields = new String[maxFields];
+        StringBuilder field = new StringBuilder();
+        int count = 0;
+        int i = 0;
+        while (true) {
+            if (count == maxFields) {
+                throw new PrometheusException("Too many columns, expected at most " + maxFields);
+            }
+            field.setLength(0);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i = readQuoted(line, i + 1, field);
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new PrometheusException("Unexpected text after a closing quote in column " + (count + 1));
+                }
+            } else {
+                int end = line.indexOf(',', i);
+                end = end < 0 ? line.length() : end;
+                field.append(line, i, end);
+                i = end;
+            }
+            fields[count++] = field.toString();
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Reads a quoted field up to its closing quote.
+     *
+     * @return The index just past the closing quote
+     */
+    private static int readQuoted(String line, int start, StringBuilder field) throws PrometheusException {
+        int i = start;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (c != '"') {
+                field.append(c);
+            } else if (i < line.length() && line.charAt(i) == '"') {
+                field.append('"');
+                i++;
+            } else {
+                return i;
+            }
+        }
+        throw new PrometheusException("Unbalanced quote");
+    }
+
+    /**
+     * Joins fields into a row, quoting those that need it. Null fields are written as empty ones.
+     *
+     * @param fields The fields
+     * @return The row, without a line separator
+     */
+    static String join(Object[] fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            if (fields[i] != null) {
+                appendField(sb, fields[i].toString());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendField(StringBuilder sb, String field) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < field.length() && !needsQuotes; i++) {
+            char c = field.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            sb.append(field);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
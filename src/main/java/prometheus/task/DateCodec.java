@@ -0,0 +1,156 @@
+package prometheus.task;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import prometheus.PrometheusException;
+
+/**
+ * Converts date-times to and from the text used for storage and display.
+ * Formatters are compiled once and shared, since they are immutable and thread-safe.
+ * The fixed "yyyy-MM-dd HHmm" storage layout is additionally parsed and printed by hand,
+ * which avoids the general formatter machinery on every stored record. Text the hand-written parser
+ * does not accept, such as a day past the end of its month, is left to the shared formatter,
+ * so dates are resolved exactly as the formatter resolves them.
+ */
+public class DateCodec {
+    /**
+     * Formatter for the storage and input layout, e.g. "2019-12-02 1800".
+     */
+    public static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    /**
+     * Formatter for displaying date-times to the user, e.g. "Dec 02 2019, 6:00PM".
+     */
+    public static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+
+    private static final int STORAGE_LENGTH = "yyyy-MM-dd HHmm".length();
+    private static final int MAX_FAST_YEAR = 9999;
+
+    private DateCodec() {
+    }
+
+    /**
+     * Formats a date-time in the storage layout.
+     *
+     * @param dateTime The date-time to format
+     * @return The formatted date-time
+     */
+    public static String formatStorage(LocalDateTime dateTime) {
+        StringBuilder sb = new StringBuilder(STORAGE_LENGTH);
+        appendStorage(sb, dateTime);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a date-time in the storage layout without building an intermediate string.
+     *
+     * @param sb The builder to append to
+     * @param dateTime The date-time to format
+     */
+    public static void appendStorage(StringBuilder sb, LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > MAX_FAST_YEAR) {
+            STORAGE_FORMATTER.formatTo(dateTime, sb);
+            return;
+        }
+        appendDigits(sb, year, 4);
+        sb.append('-');
+        appendDigits(sb, dateTime.getMonthValue(), 2);
+        sb.append('-');
+        appendDigits(sb, dateTime.getDayOfMonth(), 2);
+        sb.append(' ');
+        appendDigits(sb, dateTime.getHour(), 2);
+        appendDigits(sb, dateTime.getMinute(), 2);
+    }
+
+    /**
+     * Formats a date-time for display to the user.
+     *
+     * @param dateTime The date-time to format
+     * @return The formatted date-time
+     */
+    public static String formatDisplay(LocalDateTime dateTime) {
+        return DISPLAY_FORMATTER.format(dateTime);
+    }
+
+    /**
+     * Parses a date-time in the storage layout.
+     *
+     * @param text The text to parse
+     * @return The parsed date-time
+     * @throws PrometheusException If the text is not a valid date-time in the storage layout
+     */
+    public static LocalDateTime parseStorage(CharSequence text) throws PrometheusException {
+        return parseStorage(text, 0, text.length());
+    }
+
+    /**
+     * Parses a date-time in the storage layout from a range of characters,
+     * ignoring surrounding whitespace, without building any intermediate strings.
+     *
+     * @param text The characters holding the date-time
+     * @param start The index of the first character of the range
+     * @param end The index one past the last character of the range
+     * @return The parsed date-time
+     * @throws PrometheusException If the range is not a valid date-time in the storage layout
+     */
+    public static LocalDateTime parseStorage(CharSequence text, int start, int end) throws PrometheusException {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        boolean hasLayout = end - start == STORAGE_LENGTH && text.charAt(start + 4) == '-'
+                && text.charAt(start + 7) == '-' && text.charAt(start + 10) == ' ';
+        if (hasLayout) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 13, 2);
+            // Year 0 is left to the formatter, whose year-of-era field rejects it
+            if (year > 0 && (month | day | hour | minute) >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute);
+                } catch (DateTimeException e) {
+                    // Falls through to the formatter, which clamps days such as Feb 30 to the end of the month
+                }
+            }
+        }
+        CharSequence dateTime = text.subSequence(start, end);
+        try {
+            return LocalDateTime.parse(dateTime, STORAGE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new PrometheusException("Invalid date format: " + dateTime);
+        }
+    }
+
+    /**
+     * Reads a run of ASCII digits, returning -1 if any character is not a digit.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void appendDigits(StringBuilder sb, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + value / divisor % 10));
+        }
+    }
+}
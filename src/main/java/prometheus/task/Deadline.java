@@ -1,7 +1,6 @@
 package prometheus.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a task with a specific deadline.
@@ -10,11 +9,6 @@ import java.time.format.DateTimeFormatter;
  */
 public class Deadline extends Task {
 
-    /**
-     * Formatter for displaying date-time in the format "MMM dd yyyy, h:mma".
-     */
-    private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
-
     /**
      * The deadline by which the task must be completed.
      */
@@ -48,19 +42,19 @@ public class Deadline extends Task {
      */
     @Override
     public String toFileString() {
-        return "D | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description + " | " +
-                by.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        return typeField("D") + " | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description
+                + " | " + DateCodec.formatStorage(by);
     }
 
     /**
-     * Returns a string representation of the task.
+     * Formats the string representation of the task.
      * Format: "[D][✓] description (by: MMM dd yyyy, h:mma)"
      *
      * @return The string representation of the task
      */
     @Override
-    public String toString() {
-        String baseString = super.toString(); // Gets [X] description #high
-        return "[D]" + baseString + " (by: " + by.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) + ")";
+    protected String formatDisplay() {
+        String baseString = super.formatDisplay(); // Gets [X] description #high
+        return "[D]" + baseString + " (by: " + DateCodec.formatDisplay(by) + ")";
     }
 }
@@ -1,7 +1,6 @@
 package prometheus.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 import prometheus.PrometheusException;
 
@@ -13,11 +12,6 @@ import prometheus.PrometheusException;
  */
 public class Event extends Task {
 
-    /**
-     * Formatter for displaying date-time in the format "MMM dd yyyy, h:mma".
-     */
-    private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
-
     protected LocalDateTime from;
     protected LocalDateTime to;
 
@@ -66,21 +60,20 @@ public class Event extends Task {
      */
     @Override
     public String toFileString() {
-        return "E | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description + " | " +
-                from.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm")) + " | " +
-                to.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        return typeField("E") + " | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description
+                + " | " + DateCodec.formatStorage(from) + " | " + DateCodec.formatStorage(to);
     }
 
     /**
-     * Returns a string representation of the event.
+     * Formats the string representation of the event.
      * Format: "[E][✓] description (from: MMM dd yyyy, h:mma to: MMM dd yyyy, h:mma)"
      *
      * @return The string representation of the event
      */
     @Override
-    public String toString() {
-        String baseString = super.toString(); // Gets [X] description #high
-        return "[E]" + baseString + " (from: " + from.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) +
-                " to: " + to.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) + ")";
+    protected String formatDisplay() {
+        String baseString = super.formatDisplay(); // Gets [X] description #high
+        return "[E]" + baseString + " (from: " + DateCodec.formatDisplay(from) +
+                " to: " + DateCodec.formatDisplay(to) + ")";
     }
 }
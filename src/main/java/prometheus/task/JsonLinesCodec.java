@@ -0,0 +1,210 @@
+package prometheus.task;
+
+import java.util.List;
+
+import prometheus.PrometheusException;
+
+/**
+ * Reads and writes rows of JSON Lines, where each line holds one flat JSON object.
+ * Only what task rows need is supported: values are strings, booleans, numbers or null, and
+ * nested objects and arrays are rejected. Keys that are not expected are skipped.
+ */
+final class JsonLinesCodec {
+    private JsonLinesCodec() {
+    }
+
+    /**
+     * Reads the values of the given keys from a row.
+     * Strings are unescaped, and other values are returned as written, so true is returned as "true".
+     *
+     * @param line The row, without its line separator
+     * @param keys The keys to read
+     * @return The value of each key, in the order of the keys, or null where a key is missing or null
+     * @throws PrometheusException If the row is not a flat JSON object
+     */
+    static String[] split(String line, List<String> keys) throws PrometheusException {
+        String[] values = new String[keys.size()];
+        Cursor cursor = new Cursor(line);
+        cursor.expect('{');
+        if (!cursor.skip('}')) {
+            do {
+                String key = cursor.readString();
+                cursor.expect(':');
+                String value = cursor.readValue();
+                int column = keys.indexOf(key);
+                if (column >= 0) {
+                    values[column] = value;
+                }
+            } while (cursor.skip(','));
+            cursor.expect('}');
+        }
+        cursor.expectEnd();
+        return values;
+    }
+
+    /**
+     * Writes the given keys and values as a row. Booleans and numbers are written as they are, other values
+     * as strings, and keys whose value is null are left out.
+     *
+     * @param keys The keys
+     * @param values The value of each key, in the order of the keys
+     * @return The row, without a line separator
+     */
+    static String join(List<String> keys, Object[] values) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            appendString(sb, keys.get(i));
+            sb.append(':');
+            if (values[i] instanceof Boolean || values[i] instanceof Number) {
+                sb.append(values[i]);
+            } else {
+                appendString(sb, values[i].toString());
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder sb, String text) {
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            case '\r' -> sb.append("\\r");
+            case '\t' -> sb.append("\\t");
+            default -> {
+                if (c < ' ') {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * A position within a row, skipping whitespace between tokens.
+     */
+    private static class Cursor {
+        private final String line;
+        private int position;
+
+        Cursor(String line) {
+            this.line = line;
+        }
+
+        boolean skip(char c) {
+            skipWhitespace();
+            if (position < line.length() && line.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) throws PrometheusException {
+            if (!skip(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        void expectEnd() throws PrometheusException {
+            skipWhitespace();
+            if (position < line.length()) {
+                throw error("Unexpected text after the object");
+            }
+        }
+
+        String readValue() throws PrometheusException {
+            skipWhitespace();
+            if (position < line.length() && line.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < line.length() && ",}".indexOf(line.charAt(position)) < 0
+                    && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            String literal = line.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            boolean isLiteral = literal.equals("true") || literal.equals("false")
+                    || literal.matches("-?[0-9][0-9.eE+-]*");
+            if (!isLiteral) {
+                throw error(literal.isEmpty() ? "Expected a value" : "Unsupported value '" + literal + "'");
+            }
+            return literal;
+        }
+
+        String readString() throws PrometheusException {
+            if (!skip('"')) {
+                throw error("Expected a string");
+            }
+            StringBuilder sb = new StringBuilder();
+            while (position < line.length()) {
+                char c = line.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position == line.length()) {
+                    break;
+                }
+                char escaped = line.charAt(position++);
+                switch (escaped) {
+                case '"', '\\', '/' -> sb.append(escaped);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> sb.append(readUnicodeEscape());
+                default -> throw error("Invalid escape '\\" + escaped + "'");
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private char readUnicodeEscape() throws PrometheusException {
+            if (position + 4 > line.length()) {
+                throw error("Invalid unicode escape");
+            }
+            int c = 0;
+            for (int i = 0; i < 4; i++) {
+                // Checked digit by digit, as Integer.parseInt would also accept a sign or non-ASCII digits
+                char ch = line.charAt(position + i);
+                int digit = ch < 128 ? Character.digit(ch, 16) : -1;
+                if (digit < 0) {
+                    throw error("Invalid unicode escape");
+                }
+                c = c * 16 + digit;
+            }
+            position += 4;
+            return (char) c;
+        }
+
+        private void skipWhitespace() {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+
+        private PrometheusException error(String message) {
+            return new PrometheusException(message + " at character " + (position + 1));
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package prometheus.task;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import prometheus.PrometheusException;
 
@@ -11,8 +10,14 @@ import prometheus.PrometheusException;
  * Provides common functionality for task management including description,
  * completion status, and string representation. All specific task types
  * must extend this class.
+ * The encoded storage record is cached until the task changes, so saving a list
+ * in which few tasks have changed only re-encodes those tasks. The string shown to the user
+ * is cached in the same way, so listing tasks that have not changed does not format them again.
  */
 public abstract class Task {
+    private static final AtomicIntegerFieldUpdater<Task> VERSION =
+            AtomicIntegerFieldUpdater.newUpdater(Task.class, "version");
+
     /**
      * The description of the task.
      */
@@ -25,6 +30,30 @@ public abstract class Task {
 
     protected Priority priority;
 
+    /**
+     * The ID of the task, or 0 if it has not been added to a task list yet.
+     */
+    protected long id;
+
+    /**
+     * The UTF-8 encoded storage record, tagged with the version of the task it was encoded from,
+     * or null if it has not been encoded yet.
+     */
+    private volatile Versioned<byte[]> fileBytes;
+
+    /**
+     * The string shown to the user, tagged with the version of the task it was formatted from,
+     * or null if it has not been formatted yet.
+     */
+    private volatile Versioned<String> displayString;
+
+    /**
+     * Number of changes made to the task. A cached encoding or string is only used while the version it is
+     * tagged with is current, so one made on one thread while another thread changed the task is never kept,
+     * and a save never writes an encoding older than the last change.
+     */
+    private volatile int version;
+
     /**
      * Constructs a new Task with the given description.
      * The task is initially marked as not done.
@@ -41,12 +70,29 @@ public abstract class Task {
 
     public void setPriority(Priority priority) {
         this.priority = priority;
+        invalidate();
     }
 
     public Priority getPriority() {
         return this.priority;
     }
 
+    /**
+     * Returns the ID assigned to the task when it was first added to a task list.
+     * IDs are stored with the task, so they stay the same when other tasks are removed.
+     *
+     * @return The ID of the task, or 0 if none has been assigned
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        assert id > 0 : "Task ID must be positive";
+        this.id = id;
+        invalidate();
+    }
+
     /**
      * Returns the status icon for the task.
      * Returns "X" if the task is done, or a space if not done.
@@ -62,6 +108,7 @@ public abstract class Task {
      */
     public void markAsDone() {
         this.isDone = true;
+        invalidate();
     }
 
     /**
@@ -69,6 +116,7 @@ public abstract class Task {
      */
     public void markAsNotDone() {
         this.isDone = false;
+        invalidate();
     }
 
     /**
@@ -90,13 +138,31 @@ public abstract class Task {
     }
 
     /**
-     * Returns a string representation of the task.
-     * Format: "[✓] description" or "[ ] description"
+     * Returns a string representation of the task, as formatted by {@link #formatDisplay()}.
+     * The string is cached until the task changes.
      *
      * @return The string representation of the task
      */
     @Override
-    public String toString() {
+    public final String toString() {
+        // Read before the fields are, so that a change made while formatting leaves the string out of date
+        int current = version;
+        Versioned<String> cached = displayString;
+        if (cached != null && cached.version == current) {
+            return cached.value;
+        }
+        String text = formatDisplay();
+        displayString = new Versioned<>(text, current);
+        return text;
+    }
+
+    /**
+     * Formats the string representation of the task.
+     * Format: "[✓] description" or "[ ] description"
+     *
+     * @return The string representation of the task
+     */
+    protected String formatDisplay() {
         String baseString = "[" + getStatusIcon() + "] " + description;
         // Only show priority if it's not medium (default)
         if (priority != Priority.MEDIUM) {
@@ -113,72 +179,75 @@ public abstract class Task {
      */
     public abstract String toFileString();
 
+    /**
+     * Returns the storage record of the task encoded as UTF-8, without a line separator.
+     * The encoding is cached until the task changes, and the returned array must not be modified.
+     *
+     * @return The encoded storage record
+     */
+    public byte[] toFileBytes() {
+        int current = version;
+        Versioned<byte[]> cached = fileBytes;
+        if (cached != null && cached.version == current) {
+            return cached.value;
+        }
+        byte[] bytes = toFileString().getBytes(StandardCharsets.UTF_8);
+        fileBytes = new Versioned<>(bytes, current);
+        return bytes;
+    }
+
+    /**
+     * Returns whether the task has changed since its storage record was last encoded.
+     *
+     * @return true if the next save has to encode the task again
+     */
+    public boolean isDirty() {
+        Versioned<byte[]> cached = fileBytes;
+        return cached == null || cached.version != version;
+    }
+
+    /**
+     * Puts the cached encoding and display string of the task out of date, so they are made again when next needed.
+     * Must be called whenever a stored or displayed field changes, after the field has been changed.
+     */
+    protected void invalidate() {
+        VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Returns the type field of the storage format, followed by the ID if one has been assigned,
+     * e.g. "T#12".
+     *
+     * @param type The type code of the task
+     * @return The type field
+     */
+    protected String typeField(String type) {
+        return id == 0 ? type : type + "#" + id;
+    }
+
     /**
      * Creates a task from its string representation in storage.
      * Factory method that creates the appropriate task type based on the stored format.
+     * Decoding is delegated to {@link TaskDecoder}, which parses the record in a single pass.
      *
      * @param fileString The string representation from storage
      * @return The created Task object
      * @throws PrometheusException If the string format is invalid or cannot be parsed
      */
     public static Task fromFileString(String fileString) throws PrometheusException {
-        String[] parts = fileString.split(" \\| ");
-        if (parts.length < 4) {
-            throw new PrometheusException("Invalid task format in file: " + fileString);
-        }
-
-        String typePrefix = parts[0].trim();
-        boolean isDone = parts[1].trim().equals("1");
-        int priorityValue = Integer.parseInt(parts[2].trim());
-        String description = parts[3].trim();
-
-        Task task = createTaskFromPrefix(typePrefix, description, parts);
-
-        // Set priority based on the saved value
-        if (priorityValue == 0) {
-            task.setPriority(Priority.LOW);
-        } else if (priorityValue == 1) {
-            task.setPriority(Priority.MEDIUM);
-        } else if (priorityValue == 2) {
-            task.setPriority(Priority.HIGH);
-        }
-
-        if (isDone) {
-            task.markAsDone();
-        }
-        return task;
-    }
-
-    private static Task createTaskFromPrefix(String typePrefix, String description, String[] parts)
-            throws PrometheusException {
-        switch (typePrefix) {
-        case "T":
-            return new Todo(description);
-        case "D":
-            if (parts.length >= 4) {
-                LocalDateTime by = parseDateTime(parts[3].trim());
-                return new Deadline(description, by);
-            } else {
-                throw new PrometheusException("Invalid deadline format");
-            }
-        case "E":
-            if (parts.length >= 5) {
-                LocalDateTime from = parseDateTime(parts[3].trim());
-                LocalDateTime to = parseDateTime(parts[4].trim());
-                return new Event(description, from, to);
-            } else {
-                throw new PrometheusException("Invalid event format");
-            }
-        default:
-            throw new PrometheusException("Unknown task type: " + typePrefix);
-        }
+        return TaskDecoder.decode(fileString);
     }
 
-    private static LocalDateTime parseDateTime(String dateTimeString) throws PrometheusException {
-        try {
-            return LocalDateTime.parse(dateTimeString, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-        } catch (DateTimeParseException e) {
-            throw new PrometheusException("Invalid date format: " + dateTimeString);
+    /**
+     * A cached value tagged with the version of the task it was computed from.
+     */
+    private static final class Versioned<T> {
+        private final T value;
+        private final int version;
+
+        private Versioned(T value, int version) {
+            this.value = value;
+            this.version = version;
         }
     }
 }
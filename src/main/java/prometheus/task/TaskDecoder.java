@@ -0,0 +1,289 @@
+package prometheus.task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import prometheus.PrometheusException;
+
+/**
+ * Decodes tasks from their file representation in a single pass over the record.
+ * Fields are located by scanning for the " | " separator in place, so the only object
+ * allocated per record besides the task itself is its description. The description is taken
+ * to be everything between the flag fields and the trailing date fields, which lets it
+ * contain the separator.
+ * Records written before priorities were stored, which lack the priority field, are also
+ * accepted and given the default priority. The type code may be followed by the task ID, as in "T#12";
+ * records without one leave the task without an ID.
+ */
+public class TaskDecoder {
+    private static final int SEPARATOR_LENGTH = 3;
+
+    private TaskDecoder() {
+    }
+
+    /**
+     * Decodes a single record held in a string.
+     *
+     * @param record The record, without its line separator
+     * @return The decoded task
+     * @throws PrometheusException If the record is malformed
+     */
+    public static Task decode(CharSequence record) throws PrometheusException {
+        return decode(new CharSource(record), 0, record.length());
+    }
+
+    /**
+     * Decodes a single record stored in the given range of a buffer.
+     * The buffer's position and limit are left untouched.
+     *
+     * @param buffer The buffer holding UTF-8 encoded records
+     * @param start The index of the first byte of the record
+     * @param end The index one past the last byte of the record, excluding the line separator
+     * @return The decoded task
+     * @throws PrometheusException If the record is malformed
+     */
+    public static Task decode(ByteBuffer buffer, int start, int end) throws PrometheusException {
+        return decode(new ByteSource(buffer), start, end);
+    }
+
+    private static Task decode(Source source, int start, int end) throws PrometheusException {
+        end = trimEnd(source, start, end);
+        int typeEnd = findSeparator(source, start, end);
+        int doneEnd = typeEnd < 0 ? -1 : findSeparator(source, typeEnd + SEPARATOR_LENGTH, end);
+        if (doneEnd < 0) {
+            throw new PrometheusException("Invalid task format in file: " + source.substring(start, end));
+        }
+
+        int typeStart = trimStart(source, start, typeEnd);
+        int typeFieldEnd = trimEnd(source, typeStart, typeEnd);
+        long id = 0;
+        if (typeFieldEnd - typeStart > 1 && source.charAt(typeStart + 1) == '#') {
+            id = parseId(source, typeStart + 2, typeFieldEnd);
+            typeFieldEnd = typeStart + 1;
+        }
+        int typeLength = typeFieldEnd - typeStart;
+        int type = typeLength == 1 ? source.charAt(typeStart) : 0;
+        int dateFieldCount = type == 'E' ? 2 : type == 'D' ? 1 : 0;
+        boolean isDone = isSingleChar(source, typeEnd + SEPARATOR_LENGTH, doneEnd, '1');
+
+        // The priority field is present unless this is a legacy record, whose third field is the description
+        int rest = doneEnd + SEPARATOR_LENGTH;
+        Priority priority = Priority.MEDIUM;
+        int priorityEnd = findSeparator(source, rest, end);
+        int priorityOrdinal = priorityEnd < 0 ? -1 : parsePriority(source, rest, priorityEnd);
+        if (priorityOrdinal >= 0 && hasSeparators(source, priorityEnd + SEPARATOR_LENGTH, end, dateFieldCount)) {
+            priority = Priority.values()[priorityOrdinal];
+            rest = priorityEnd + SEPARATOR_LENGTH;
+        } else if (dateFieldCount == 0 && priorityEnd >= 0) {
+            throw new PrometheusException("Invalid priority: "
+                    + source.substring(trimStart(source, rest, priorityEnd), priorityEnd));
+        }
+
+        Task task;
+        switch (type) {
+        case 'T':
+            task = new Todo(description(source, rest, end));
+            break;
+        case 'D':
+            int bySeparator = findLastSeparator(source, rest, end);
+            if (bySeparator < 0) {
+                throw new PrometheusException("Invalid deadline format");
+            }
+            task = new Deadline(description(source, rest, bySeparator),
+                    DateCodec.parseStorage(source, bySeparator + SEPARATOR_LENGTH, end));
+            break;
+        case 'E':
+            int toSeparator = findLastSeparator(source, rest, end);
+            int fromSeparator = toSeparator < 0 ? -1 : findLastSeparator(source, rest, toSeparator);
+            if (fromSeparator < 0) {
+                throw new PrometheusException("Invalid event format");
+            }
+            task = new Event(description(source, rest, fromSeparator),
+                    DateCodec.parseStorage(source, fromSeparator + SEPARATOR_LENGTH, toSeparator),
+                    DateCodec.parseStorage(source, toSeparator + SEPARATOR_LENGTH, end));
+            break;
+        default:
+            throw new PrometheusException("Unknown task type: " + source.substring(typeStart, typeStart + typeLength));
+        }
+
+        task.setPriority(priority);
+        if (id != 0) {
+            task.setId(id);
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Parses the ID that follows the type code, which must be a positive decimal number.
+     */
+    private static long parseId(Source source, int start, int end) throws PrometheusException {
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            int digit = source.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || id > (Long.MAX_VALUE - digit) / 10) {
+                throw new PrometheusException("Invalid task ID: " + source.substring(start, end));
+            }
+            id = id * 10 + digit;
+        }
+        if (id == 0) {
+            throw new PrometheusException("Invalid task ID: " + source.substring(start, end));
+        }
+        return id;
+    }
+
+    /**
+     * Returns the priority ordinal held in the field, or -1 if the field is not a single valid digit.
+     */
+    private static int parsePriority(Source source, int start, int end) {
+        start = trimStart(source, start, end);
+        end = trimEnd(source, start, end);
+        if (end - start == 1) {
+            int ordinal = source.charAt(start) - '0';
+            if (ordinal >= 0 && ordinal < Priority.values().length) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private static String description(Source source, int start, int end) throws PrometheusException {
+        start = trimStart(source, start, end);
+        end = trimEnd(source, start, end);
+        if (start == end) {
+            throw new PrometheusException("Task description cannot be empty");
+        }
+        return source.substring(start, end);
+    }
+
+    private static boolean isSingleChar(Source source, int start, int end, char expected) {
+        start = trimStart(source, start, end);
+        end = trimEnd(source, start, end);
+        return end - start == 1 && source.charAt(start) == expected;
+    }
+
+    /**
+     * Returns whether the range holds at least the given number of separators.
+     */
+    private static boolean hasSeparators(Source source, int start, int end, int count) {
+        int index = start;
+        for (int found = 0; found < count; found++) {
+            int separator = findSeparator(source, index, end);
+            if (separator < 0) {
+                return false;
+            }
+            index = separator + SEPARATOR_LENGTH;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first " | " separator in the range, or -1 if there is none.
+     */
+    private static int findSeparator(Source source, int start, int end) {
+        for (int i = start; i + 2 < end; i++) {
+            if (source.charAt(i + 1) == '|' && source.charAt(i) == ' ' && source.charAt(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last " | " separator in the range, or -1 if there is none.
+     */
+    private static int findLastSeparator(Source source, int start, int end) {
+        for (int i = end - SEPARATOR_LENGTH; i >= start; i--) {
+            if (source.charAt(i + 1) == '|' && source.charAt(i) == ' ' && source.charAt(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(Source source, int start, int end) {
+        while (start < end && isWhitespace(source.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(Source source, int start, int end) {
+        while (end > start && isWhitespace(source.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Random access to the characters of a record. All structural characters of a record are ASCII,
+     * so a UTF-8 byte source only needs to decode the description itself.
+     */
+    private interface Source extends CharSequence {
+        String substring(int start, int end);
+    }
+
+    private static class CharSource implements Source {
+        private final CharSequence chars;
+
+        CharSource(CharSequence chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int length() {
+            return chars.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return chars.subSequence(start, end);
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return chars.subSequence(start, end).toString();
+        }
+    }
+
+    private static class ByteSource implements Source {
+        private final ByteBuffer buffer;
+
+        ByteSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return substring(start, end);
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package prometheus.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import prometheus.PrometheusException;
+
+/**
+ * Formats that tasks can be imported from and exported to, one task per line.
+ * Each task is a row of the columns in {@link #COLUMNS}: its type (todo, deadline or event), whether it is
+ * done, its priority and its description, and for deadlines and events their dates in the storage layout
+ * "yyyy-MM-dd HHmm". Columns that do not apply to a task are left empty, and on import an empty done or
+ * priority column means not done and medium priority. IDs are not exported, as imported tasks are given new ones.
+ */
+public enum TaskFileFormat {
+    /**
+     * Comma-separated values with the columns in order, optionally preceded by a header row naming them.
+     */
+    CSV {
+        @Override
+        public String getHeader() {
+            return String.join(",", COLUMNS);
+        }
+
+        @Override
+        public boolean isHeader(String line) throws PrometheusException {
+            String first = CsvCodec.split(line, COLUMNS.size())[TYPE];
+            return first.trim().equalsIgnoreCase(COLUMNS.get(TYPE));
+        }
+
+        @Override
+        String[] split(String line) throws PrometheusException {
+            return CsvCodec.split(line, COLUMNS.size());
+        }
+
+        @Override
+        String join(Object[] fields) {
+            return CsvCodec.join(fields);
+        }
+    },
+
+    /**
+     * JSON Lines, with one flat object per line keyed by the column names.
+     */
+    JSON_LINES {
+        @Override
+        public String getHeader() {
+            return null;
+        }
+
+        @Override
+        public boolean isHeader(String line) {
+            return false;
+        }
+
+        @Override
+        String[] split(String line) throws PrometheusException {
+            return JsonLinesCodec.split(line, COLUMNS);
+        }
+
+        @Override
+        String join(Object[] fields) {
+            return JsonLinesCodec.join(COLUMNS, fields);
+        }
+    };
+
+    /**
+     * The columns of a task row, in the order they are written.
+     */
+    public static final List<String> COLUMNS = List.of("type", "done", "priority", "description", "by", "from", "to");
+
+    private static final int TYPE = 0;
+    private static final int DONE = 1;
+    private static final int PRIORITY = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int BY = 4;
+    private static final int FROM = 5;
+    private static final int TO = 6;
+
+    /**
+     * Returns the format of the given file, judging by its extension.
+     * Files ending in .csv are read as CSV, and files ending in .jsonl, .ndjson or .json as JSON Lines.
+     *
+     * @param fileName The name or path of the file
+     * @return The format of the file
+     * @throws PrometheusException If the extension is not recognised
+     */
+    public static TaskFileFormat forFile(String fileName) throws PrometheusException {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        throw new PrometheusException("Unknown file type '" + fileName + "'. Use a .csv or .jsonl file");
+    }
+
+    /**
+     * Returns the header row written before the tasks.
+     *
+     * @return The header row, or null if the format has none
+     */
+    public abstract String getHeader();
+
+    /**
+     * Returns whether the given line is a header row rather than a task.
+     *
+     * @param line The first line of a file
+     * @return true if the line names the columns
+     * @throws PrometheusException If the line is malformed
+     */
+    public abstract boolean isHeader(String line) throws PrometheusException;
+
+    abstract String[] split(String line) throws PrometheusException;
+
+    abstract String join(Object[] fields);
+
+    /**
+     * Encodes a task as a row.
+     *
+     * @param task The task to encode
+     * @return The row, without a line separator
+     */
+    public String encode(Task task) {
+        Object[] fields = new Object[COLUMNS.size()];
+        fields[DONE] = task.isDone();
+        fields[PRIORITY] = task.getPriority().getDisplayName();
+        fields[DESCRIPTION] = task.getDescription();
+        if (task instanceof Deadline deadline) {
+            fields[TYPE] = "deadline";
+            fields[BY] = DateCodec.formatStorage(deadline.getBy());
+        } else if (task instanceof Event event) {
+            fields[TYPE] = "event";
+            fields[FROM] = DateCodec.formatStorage(event.getFrom());
+            fields[TO] = DateCodec.formatStorage(event.getTo());
+        } else {
+            fields[TYPE] = "todo";
+        }
+        return join(fields);
+    }
+
+    /**
+     * Decodes a task from a row. The type may also be given by its storage code, T, D or E.
+     *
+     * @param line The row, without its line separator
+     * @return The decoded task, without an ID
+     * @throws PrometheusException If the row is malformed or does not describe a valid task
+     */
+    public Task decode(String line) throws PrometheusException {
+        String[] fields = split(line);
+        String description = field(fields, DESCRIPTION);
+        if (description.isEmpty()) {
+            throw new PrometheusException("The description cannot be empty");
+        }
+        if (description.indexOf('\n') >= 0 || description.indexOf('\r') >= 0) {
+            throw new PrometheusException("The description cannot contain line breaks");
+        }
+
+        String type = field(fields, TYPE).toLowerCase();
+        Task task = switch (type) {
+        case "todo", "t" -> new Todo(description);
+        case "deadline", "d" -> new Deadline(description, parseDate(fields, BY));
+        case "event", "e" -> new Event(description, parseDate(fields, FROM), parseDate(fields, TO));
+        default -> throw new PrometheusException("Unknown task type '" + type + "'. Use: todo, deadline or event");
+        };
+        if (parseDone(field(fields, DONE))) {
+            task.markAsDone();
+        }
+        task.setPriority(parsePriority(field(fields, PRIORITY)));
+        return task;
+    }
+
+    private static String field(String[] fields, int column) {
+        return fields[column] == null ? "" : fields[column].trim();
+    }
+
+    private static LocalDateTime parseDate(String[] fields, int column) throws PrometheusException {
+        String text = field(fields, column);
+        if (text.isEmpty()) {
+            throw new PrometheusException("The '" + COLUMNS.get(column) + "' date is missing");
+        }
+        try {
+            return DateCodec.parseStorage(text);
+        } catch (PrometheusException e) {
+            throw new PrometheusException("Invalid '" + COLUMNS.get(column) + "' date '" + text
+                    + "'. Use: yyyy-MM-dd HHmm");
+        }
+    }
+
+    private static boolean parseDone(String text) throws PrometheusException {
+        return switch (text.toLowerCase()) {
+        case "true", "1", "x", "yes" -> true;
+        case "false", "0", "", "no" -> false;
+        default -> throw new PrometheusException("Invalid done value '" + text + "'. Use: true or false");
+        };
+    }
+
+    private static Priority parsePriority(String text) throws PrometheusException {
+        if (text.isEmpty()) {
+            return Priority.MEDIUM;
+        }
+        for (Priority priority : Priority.values()) {
+            if (priority.getDisplayName().equalsIgnoreCase(text)) {
+                return priority;
+            }
+        }
+        throw new PrometheusException("Invalid priority '" + text + "'. Use: high, medium, or low");
+    }
+}
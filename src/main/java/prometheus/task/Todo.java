@@ -23,17 +23,17 @@ public class Todo extends Task {
      */
     @Override
     public String toFileString() {
-        return "T | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description;
+        return typeField("T") + " | " + (isDone ? "1" : "0") + " | " + priority.ordinal() + " | " + description;
     }
 
     /**
-     * Returns a string representation of the Todo task for display purposes.
+     * Formats the string representation of the Todo task for display purposes.
      * Format: "[T][✓/✗] [description]"
      *
      * @return A formatted string representation of the Todo task
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String formatDisplay() {
+        return "[T]" + super.formatDisplay();
     }
 }
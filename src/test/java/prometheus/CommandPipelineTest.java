@@ -0,0 +1,85 @@
+package prometheus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.command.CommandResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandPipelineTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Takes every command out of the pipeline and executes it, failing instead of waiting forever.
+     */
+    private List<CommandResult> drain(CommandPipeline pipeline) throws Exception {
+        TaskList tasks = new TaskList();
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        return CompletableFuture.supplyAsync(() -> {
+            List<CommandResult> results = new ArrayList<>();
+            try {
+                for (CommandPipeline.ParsedCommand command = pipeline.next(); command != null;
+                        command = pipeline.next()) {
+                    results.add(command.execute(tasks, storage));
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return results;
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void next_parserFails_reportsErrorAndReachesEnd() throws Exception {
+        BufferedReader input = new BufferedReader(new StringReader("todo a\nboom\ntodo b\n"));
+        CommandPipeline.LineParser parser = line -> {
+            if (line.equals("boom")) {
+                throw new IllegalStateException("parser bug");
+            }
+            return Parser.parse(line);
+        };
+
+        try (CommandPipeline pipeline = new CommandPipeline(input, parser)) {
+            List<CommandResult> results = drain(pipeline);
+
+            assertEquals(3, results.size());
+            assertFalse(results.get(0).isError());
+            assertTrue(results.get(1).isError());
+            assertTrue(results.get(1).render().contains("parser bug"), results.get(1).render());
+            assertFalse(results.get(2).isError());
+        }
+    }
+
+    @Test
+    public void next_readerFails_endsInput() throws Exception {
+        BufferedReader input = new BufferedReader(new StringReader("todo a\n")) {
+            private boolean hasRead;
+
+            @Override
+            public String readLine() {
+                if (hasRead) {
+                    throw new UncheckedIOException(new IOException("disk gone"));
+                }
+                hasRead = true;
+                return "todo a";
+            }
+        };
+
+        try (CommandPipeline pipeline = new CommandPipeline(input)) {
+            assertEquals(1, drain(pipeline).size());
+        }
+    }
+}
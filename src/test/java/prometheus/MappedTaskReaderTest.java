@@ -0,0 +1,58 @@
+package prometheus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.task.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedTaskReaderTest {
+    private static final int LINE_COUNT = 100_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readParallel_largeFile_matchesSequentialOrder() throws Exception {
+        Path file = writeTasks(-1);
+        MappedTaskReader reader = new MappedTaskReader(file);
+
+        ArrayList<Task> sequential = reader.read();
+        ArrayList<Task> parallel = reader.readParallel(new ForkJoinPool(4));
+
+        assertEquals(LINE_COUNT, parallel.size());
+        for (int i = 0; i < LINE_COUNT; i++) {
+            assertEquals(sequential.get(i).getDescription(), parallel.get(i).getDescription());
+        }
+    }
+
+    @Test
+    void readParallel_malformedLineInLaterChunk_reportsGlobalLineNumber() throws Exception {
+        Path file = writeTasks(87_654);
+        MappedTaskReader reader = new MappedTaskReader(file);
+
+        PrometheusException e = assertThrows(PrometheusException.class, () -> {
+            reader.readParallel(new ForkJoinPool(4));
+        });
+        assertTrue(e.getMessage().startsWith("Line 87654: "), e.getMessage());
+    }
+
+    private Path writeTasks(int malformedLine) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= LINE_COUNT; i++) {
+            lines.add(i == malformedLine ? "X | 0 | 1 | broken" : "D | 0 | 1 | task " + i + " | 2024-01-01 1800");
+        }
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, lines);
+        return file;
+    }
+}
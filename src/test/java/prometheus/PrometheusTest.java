@@ -0,0 +1,76 @@
+package prometheus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrometheusTest {
+    private static final String SCRIPT = "todo read book\n"
+            + "deadline return book /by 2024-03-15 2359\n"
+            + "  event meeting /from 2024-03-11 1400 /to 2024-03-11 1600  \r\n"
+            + "\n"
+            + "mark 1\n"
+            + "mark 9\n"
+            + "priority 2 high\n"
+            + "batch { todo a; todo b; delete 1 }\n"
+            + "unknown\n"
+            + "list\n"
+            + "find book\n"
+            + "top 2\n";
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] runSequential(String input, String fileName) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Prometheus(tempDir.resolve(fileName).toString())
+                .run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), new PrintStream(out, true));
+        return out.toByteArray();
+    }
+
+    private byte[] runPipelined(String input, String fileName) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Prometheus(tempDir.resolve(fileName).toString())
+                .runPipelined(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void runPipelined_sameOutputAsRun() {
+        assertArrayEquals(runSequential(SCRIPT, "a.txt"), runPipelined(SCRIPT, "b.txt"));
+    }
+
+    @Test
+    public void runPipelined_stopsAtExitAndSavesOnce() throws PrometheusException {
+        String input = SCRIPT + "bye\ntodo after bye\n";
+
+        byte[] expected = runSequential(input, "a.txt");
+        byte[] actual = runPipelined(input, "b.txt");
+
+        assertArrayEquals(expected, actual);
+        assertEquals(new Storage(tempDir.resolve("a.txt").toString()).load().toString(),
+                new Storage(tempDir.resolve("b.txt").toString()).load().toString());
+    }
+
+    @Test
+    public void runPipelined_longInput_sameOutputAsRun() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("todo task ").append(i).append('\n');
+            if (i % 100 == 99) {
+                sb.append("delete 1-50\nmark 3\n");
+            }
+        }
+        String input = sb.toString();
+
+        assertArrayEquals(runSequential(input, "a.txt"), runPipelined(input, "b.txt"));
+    }
+}
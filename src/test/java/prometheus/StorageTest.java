@@ -1,9 +1,26 @@
 package prometheus;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StorageTest {
+    @TempDir
+    Path tempDir;
+
     @Test
     void save_nullTaskList_shouldThrowAssertionError() {
         Storage storage = new Storage("test.txt");
@@ -20,4 +37,297 @@ public class StorageTest {
             storage.save(taskList);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void load_afterRecordedMutations_replaysJournal() throws PrometheusException {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        TaskList tasks = new TaskList();
+
+        Task first = new Todo("read book");
+        tasks.add(first);
+        storage.recordAdd(tasks, first);
+        Task second = new Todo("write essay");
+        tasks.add(second);
+        storage.recordAdd(tasks, second);
+        first.markAsDone();
+        storage.recordMark(tasks, first);
+        tasks.setPriority(1, Priority.HIGH);
+        storage.recordPriority(tasks, second);
+        tasks.remove(0);
+        storage.recordDelete(tasks, first);
+
+        ArrayList<Task> loaded = new Storage(filePath).load();
+        assertEquals(1, loaded.size());
+        assertEquals("write essay", loaded.get(0).getDescription());
+        assertEquals(Priority.HIGH, loaded.get(0).getPriority());
+    }
+
+    @Test
+    void save_existingJournal_compactsIntoSnapshot() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        TaskList tasks = new TaskList();
+        Task task = new Todo("read book");
+        tasks.add(task);
+        storage.recordAdd(tasks, task);
+        assertTrue(Files.exists(Path.of(filePath + ".journal")));
+
+        storage.save(tasks);
+
+        assertFalse(Files.exists(Path.of(filePath + ".journal")));
+        ArrayList<Task> loaded = new Storage(filePath).load();
+        assertEquals(1, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void load_mappedMode_matchesLineMode() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 1 | 2 | read book", "D | 0 | 1 | return book | 2023-12-25 1800",
+                "E | 0 | 0 | project meeting | 2023-12-25 1400 | 2023-12-25 1600"));
+
+        Storage storage = new Storage(file.toString());
+        storage.setLoadMode(Storage.LoadMode.MAPPED);
+        ArrayList<Task> mapped = storage.load();
+        ArrayList<Task> lines = new Storage(file.toString()).load();
+
+        assertEquals(3, mapped.size());
+        assertEquals("project meeting", mapped.get(2).getDescription());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(lines.get(i).toFileString(), mapped.get(i).toFileString());
+        }
+    }
+
+    @Test
+    void load_mappedModeMalformedLine_reportsLineNumber() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 1 | 2 | read book", "X | 0 | 1 | unknown"));
+
+        Storage storage = new Storage(file.toString());
+        storage.setLoadMode(Storage.LoadMode.MAPPED);
+        PrometheusException e = assertThrows(PrometheusException.class, storage::load);
+        assertEquals("Line 2: Unknown task type: X", e.getMessage());
+    }
+
+    @Test
+    void load_textSnapshotWithBinaryFormat_migratesToBinary() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 1 | 2 | read book", "D | 0 | 1 | return book | 2023-12-25 1800",
+                "E | 0 | 0 | project meeting | 2023-12-25 1400 | 2023-12-25 1600"));
+        ArrayList<Task> original = new Storage(file.toString()).load();
+
+        Storage storage = new Storage(file.toString());
+        storage.setFormat(Storage.Format.BINARY);
+        storage.load();
+        assertEquals((byte) 0x89, Files.readAllBytes(file)[0]);
+
+        ArrayList<Task> migrated = new Storage(file.toString()).load();
+        assertEquals(original.size(), migrated.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).toFileString(), migrated.get(i).toFileString());
+        }
+    }
+
+    @Test
+    void load_snapshotWithoutIds_assignsAndPersistsIds() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("T | 1 | 2 | read book", "T | 0 | 1 | write essay"));
+
+        ArrayList<Task> tasks = new Storage(file.toString()).load();
+
+        assertEquals(1, tasks.get(0).getId());
+        assertEquals(2, tasks.get(1).getId());
+        assertEquals(List.of("T#1 | 1 | 2 | read book", "T#2 | 0 | 1 | write essay"), Files.readAllLines(file));
+    }
+
+    @Test
+    void load_binarySnapshot_keepsIds() throws Exception {
+        String filePath = tempDir.resolve("tasks.bin").toString();
+        Storage storage = new Storage(filePath);
+        storage.setFormat(Storage.Format.BINARY);
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("write essay"));
+        tasks.remove(0);
+        storage.save(tasks);
+
+        ArrayList<Task> loaded = new Storage(filePath).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals(2, loaded.get(0).getId());
+    }
+
+    @Test
+    void flush_writeBehind_writesQueuedRecords() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.setWriteBehind(Duration.ofHours(1));
+        TaskList tasks = new TaskList();
+        Task task = new Todo("read book");
+        tasks.add(task);
+        storage.recordAdd(tasks, task);
+        tasks.setDone(0, true);
+        storage.recordMark(tasks, task);
+
+        assertFalse(Files.exists(Path.of(filePath + ".journal")));
+        storage.flush();
+
+        ArrayList<Task> loaded = new Storage(filePath).load();
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        storage.close();
+    }
+
+    @Test
+    void recordAdd_writeBehind_writesWithinDelay() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.setWriteBehind(Duration.ofMillis(10));
+        TaskList tasks = new TaskList();
+        Task task = new Todo("read book");
+        tasks.add(task);
+        storage.recordAdd(tasks, task);
+
+        Path journal = Path.of(filePath + ".journal");
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!Files.exists(journal) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(Files.exists(journal));
+        storage.close();
+    }
+
+    @Test
+    void save_writeBehind_dropsRecordsContainedInSnapshot() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.setWriteBehind(Duration.ofHours(1));
+        TaskList tasks = new TaskList();
+        Task task = new Todo("read book");
+        tasks.add(task);
+        storage.recordAdd(tasks, task);
+
+        storage.save(tasks);
+        storage.close();
+
+        assertFalse(Files.exists(Path.of(filePath + ".journal")));
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    @Test
+    void save_existingSnapshot_replacesFileWithoutLeavingTempFile() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("T#1 | 0 | 1 | old task"));
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("new task"));
+
+        storage.save(tasks);
+
+        assertEquals(List.of("T#1 | 0 | 1 | new task"), Files.readAllLines(file));
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt.tmp")));
+    }
+
+    @Test
+    void load_journalAlreadyInSnapshot_appliesItOnce() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Path journal = Path.of(filePath + ".journal");
+        Storage storage = new Storage(filePath);
+        TaskList tasks = new TaskList();
+        Task first = new Todo("read book");
+        tasks.add(first);
+        storage.recordAdd(tasks, first);
+        Task second = new Todo("write essay");
+        tasks.add(second);
+        storage.recordAdd(tasks, second);
+        tasks.remove(0);
+        storage.recordDelete(tasks, first);
+        List<String> records = Files.readAllLines(journal);
+
+        // Simulates a crash after the snapshot was moved into place but before the journal was cleared
+        storage.save(tasks);
+        Files.write(journal, records);
+
+        ArrayList<Task> loaded = new Storage(filePath).load();
+        assertEquals(1, loaded.size());
+        assertEquals("write essay", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void record_compactionFails_keepsChangeAndRetriesLater() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Path journal = Path.of(filePath + ".journal");
+        Storage storage = new Storage(filePath);
+        TaskList tasks = new TaskList();
+        // A directory in the way of the temporary snapshot file makes every compaction fail
+        Path blocker = Files.createDirectory(tempDir.resolve("tasks.txt.tmp"));
+        Path blockerContent = Files.createFile(blocker.resolve("content"));
+        storage.beginBatch();
+        for (int i = 0; i < 1100; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.recordAdd(tasks, task);
+        }
+        storage.commitBatch(tasks);
+
+        Parser.parse("mark 1").execute(tasks, storage);
+        assertTrue(tasks.get(0).isDone());
+        assertTrue(Files.exists(journal));
+        ArrayList<Task> loaded = new Storage(filePath).load();
+        assertEquals(1100, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+
+        Files.delete(blockerContent);
+        Files.delete(blocker);
+        Parser.parse("unmark 1").execute(tasks, storage);
+        assertFalse(Files.exists(journal));
+        assertFalse(new Storage(filePath).load().get(0).isDone());
+    }
+
+    @Test
+    void save_writeBehindSnapshotFails_keepsQueuedRecords() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.setWriteBehind(Duration.ofHours(1));
+        TaskList tasks = new TaskList();
+        Task task = new Todo("read book");
+        tasks.add(task);
+        storage.recordAdd(tasks, task);
+        Path blocker = Files.createDirectory(tempDir.resolve("tasks.txt.tmp"));
+        Path blockerContent = Files.createFile(blocker.resolve("content"));
+
+        assertThrows(PrometheusException.class, () -> storage.save(tasks));
+        storage.close();
+
+        assertEquals(1, new Storage(filePath).load().size());
+        Files.delete(blockerContent);
+        Files.delete(blocker);
+    }
+
+    @Test
+    void record_writeBehindJournalFull_compactsOnFlusherThread() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.setWriteBehind(Duration.ofHours(1));
+        TaskList tasks = new TaskList();
+        storage.beginBatch();
+        for (int i = 0; i < 1100; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.recordAdd(tasks, task);
+        }
+        storage.commitBatch(tasks);
+
+        assertFalse(Files.exists(Path.of(filePath)));
+        Task last = new Todo("task after compaction");
+        tasks.add(last);
+        storage.recordAdd(tasks, last);
+        storage.flush();
+
+        assertTrue(Files.exists(Path.of(filePath)));
+        assertEquals(List.of(Journal.addRecord(last)), Files.readAllLines(Path.of(filePath + ".journal")));
+        assertEquals(1101, new Storage(filePath).load().size());
+        storage.close();
+    }
+}
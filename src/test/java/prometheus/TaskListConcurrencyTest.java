@@ -0,0 +1,254 @@
+package prometheus;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.task.Deadline;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int TASKS_PER_WRITER = 2000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void concurrentWritersAndReaders_keepListConsistent() throws Exception {
+        TaskList tasks = new TaskList();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            String name = "writer" + w;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                        Task task = new Todo(name + " task " + i);
+                        tasks.add(task);
+                        if (i % 2 == 1) {
+                            tasks.beginTransaction();
+                            tasks.setDone(tasks.indexOf(task), true);
+                            tasks.removeById(task.getId());
+                            tasks.commitTransaction();
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (isWriting.get()) {
+                        List<Task> snapshot = tasks.snapshot();
+                        for (int i = 1; i < snapshot.size(); i++) {
+                            assertTrue(snapshot.get(i - 1).getId() < snapshot.get(i).getId(),
+                                    "Snapshot is out of list order");
+                        }
+                        List<Task> matches = tasks.find("task");
+                        for (int i = 1; i < matches.size(); i++) {
+                            assertTrue(matches.get(i - 1).getId() < matches.get(i).getId(),
+                                    "Search results are out of list order");
+                        }
+                        tasks.getTop(10);
+                        tasks.size();
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(errors.isEmpty(), "Threads failed: " + errors);
+        int expected = WRITERS * TASKS_PER_WRITER / 2;
+        assertEquals(expected, tasks.size());
+        assertEquals(expected, tasks.snapshot().size());
+        assertEquals(expected, tasks.find("task").size());
+        Set<Long> ids = new HashSet<>();
+        for (Task task : tasks) {
+            assertTrue(ids.add(task.getId()), "Duplicate ID " + task.getId());
+        }
+    }
+
+    @Test
+    public void snapshot_duringAnotherThreadsTransaction_doesNotWaitOrSeeIt() throws Exception {
+        TaskList tasks = new TaskList();
+        Task existing = new Todo("existing");
+        tasks.add(existing);
+        tasks.snapshot();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            tasks.beginTransaction();
+            tasks.add(new Todo("pending"));
+            Future<List<Task>> snapshot = reader.submit(tasks::snapshot);
+            try {
+                assertEquals(List.of(existing), snapshot.get(5, TimeUnit.SECONDS));
+            } finally {
+                tasks.commitTransaction();
+            }
+
+            assertEquals(2, (int) reader.submit(() -> tasks.snapshot().size()).get(5, TimeUnit.SECONDS));
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lookups_duringAnotherThreadsTransaction_doNotWaitOrSeeIt() throws Exception {
+        TaskList tasks = new TaskList();
+        Task existing = new Deadline("return book", LocalDateTime.of(2025, 1, 2, 12, 0));
+        tasks.add(existing);
+        tasks.setPriority(0, Priority.HIGH);
+        tasks.snapshot();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            tasks.beginTransaction();
+            tasks.add(new Todo("return pending book"));
+            try {
+                assertEquals(List.of(existing), reader.submit(() -> tasks.find("book")).get(5, TimeUnit.SECONDS));
+                assertEquals(List.of(existing), reader.submit(() -> tasks.findScheduled(
+                        LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 3, 0, 0)))
+                        .get(5, TimeUnit.SECONDS));
+                assertEquals(List.of(existing), reader.submit(() -> tasks.getTop(5)).get(5, TimeUnit.SECONDS));
+                assertEquals(List.of(existing), reader.submit(() -> new ArrayList<>(tasks.getByPriority(Priority.HIGH)))
+                        .get(5, TimeUnit.SECONDS));
+                assertEquals(1, (int) reader.submit(tasks::size).get(5, TimeUnit.SECONDS));
+                assertEquals(existing, reader.submit(() -> tasks.get(0)).get(5, TimeUnit.SECONDS));
+                assertEquals(existing, reader.submit(() -> tasks.getById(existing.getId())).get(5, TimeUnit.SECONDS));
+                assertEquals(0, (int) reader.submit(() -> tasks.indexOf(existing)).get(5, TimeUnit.SECONDS));
+            } finally {
+                tasks.commitTransaction();
+            }
+
+            assertEquals(2, (int) reader.submit(() -> tasks.find("book").size()).get(5, TimeUnit.SECONDS));
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    public void isInTransaction_onlyForOwningThread() throws Exception {
+        TaskList tasks = new TaskList();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            tasks.beginTransaction();
+            assertTrue(tasks.isInTransaction());
+            assertEquals(false, other.submit(tasks::isInTransaction).get(5, TimeUnit.SECONDS));
+            tasks.rollbackTransaction();
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getResponse_concurrentClients_eachSeeOwnOutputAndAllChangesAreStored() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Prometheus prometheus = new Prometheus(filePath);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> clients = new ArrayList<>();
+        for (int c = 0; c < WRITERS; c++) {
+            String name = "client" + c;
+            clients.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        String response = prometheus.getResponse("todo " + name + " " + i);
+                        assertTrue(response.startsWith("Got it. I've added this task:\n  [T][ ] " + name + " " + i
+                                + "\n"), "Unexpected response: " + response);
+                        prometheus.getResponse("list");
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        clients.forEach(Thread::start);
+        start.countDown();
+        for (Thread client : clients) {
+            client.join();
+        }
+        prometheus.getResponse("bye");
+
+        assertTrue(errors.isEmpty(), "Clients failed: " + errors);
+        assertEquals(WRITERS * 200, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void list_markedWhileFormatting_showsNewStatus() throws Exception {
+        CountDownLatch formatting = new CountDownLatch(1);
+        CountDownLatch marked = new CountDownLatch(1);
+        AtomicBoolean isFirstFormat = new AtomicBoolean(true);
+        Task task = new Todo("read book") {
+            @Override
+            protected String formatDisplay() {
+                String text = super.formatDisplay();
+                if (isFirstFormat.getAndSet(false)) {
+                    // Holds the listing here, with the old status formatted, until the task has been marked
+                    formatting.countDown();
+                    try {
+                        marked.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return text;
+            }
+        };
+        TaskList tasks = new TaskList();
+        tasks.add(task);
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> listing = reader.submit(() -> Parser.parse("list").execute(tasks, storage).render());
+            assertTrue(formatting.await(5, TimeUnit.SECONDS));
+            Parser.parse("mark 1").execute(tasks, storage);
+            marked.countDown();
+
+            assertEquals("Here are the tasks in your list:\n 1.[T][ ] read book\n", listing.get(5, TimeUnit.SECONDS));
+            Future<String> relisting = reader.submit(() -> Parser.parse("list").execute(tasks, storage).render());
+            assertEquals("Here are the tasks in your list:\n 1.[T][X] read book\n", relisting.get(5, TimeUnit.SECONDS));
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package prometheus;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListTest {
+
+    @Test
+    public void find_substringOfWord_returnsMatchesInListOrder() {
+        TaskList tasks = new TaskList();
+        Task report = new Todo("Write report");
+        Task port = new Todo("port the parser");
+        Task other = new Todo("read book");
+        tasks.add(port);
+        tasks.add(other);
+        tasks.add(report);
+
+        assertEquals(List.of(port, report), tasks.find("PORT"));
+    }
+
+    @Test
+    public void find_keywordAcrossWords_matchesWholePhrase() {
+        TaskList tasks = new TaskList();
+        Task match = new Todo("return library book");
+        tasks.add(match);
+        tasks.add(new Todo("book return"));
+
+        assertEquals(List.of(match), tasks.find("rary boo"));
+    }
+
+    @Test
+    public void find_afterRemove_excludesRemovedTask() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        Task kept = new Todo("book flight");
+        tasks.add(kept);
+
+        tasks.remove(0);
+
+        assertEquals(List.of(kept), tasks.find("book"));
+        assertTrue(tasks.find("read").isEmpty());
+    }
+
+    @Test
+    public void find_keywordShorterThanTrigram_fallsBackToScan() {
+        TaskList tasks = new TaskList();
+        Task match = new Todo("Go home");
+        tasks.add(new Todo("read book"));
+        tasks.add(match);
+
+        assertEquals(List.of(match), tasks.find("go"));
+    }
+
+    @Test
+    public void getTop_mixedPriorities_returnsHighestFirstInListOrder() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        Task low = new Todo("low");
+        Task firstHigh = new Todo("first high");
+        Task medium = new Todo("medium");
+        Task secondHigh = new Todo("second high");
+        tasks.add(low);
+        tasks.add(firstHigh);
+        tasks.add(medium);
+        tasks.add(secondHigh);
+        tasks.setPriority(0, Priority.LOW);
+        tasks.setPriority(3, Priority.HIGH);
+        tasks.setPriority(1, Priority.HIGH);
+
+        assertEquals(List.of(firstHigh, secondHigh, medium), tasks.getTop(3));
+        assertEquals(List.of(firstHigh, secondHigh, medium, low), tasks.getTop(10));
+    }
+
+    @Test
+    public void getByPriority_afterPriorityChangeAndRemove_updatesBuckets() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("first");
+        Task second = new Todo("second");
+        tasks.add(first);
+        tasks.add(second);
+
+        tasks.setPriority(1, Priority.HIGH);
+        assertEquals(List.of(second), List.copyOf(tasks.getByPriority(Priority.HIGH)));
+        assertEquals(List.of(first), List.copyOf(tasks.getByPriority(Priority.MEDIUM)));
+
+        tasks.remove(1);
+        assertTrue(tasks.getByPriority(Priority.HIGH).isEmpty());
+    }
+
+    @Test
+    public void getById_afterEarlierTaskRemoved_returnsSameTask() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("first");
+        Task second = new Todo("second");
+        tasks.add(first);
+        tasks.add(second);
+        long id = second.getId();
+
+        tasks.remove(0);
+
+        assertEquals(second, tasks.getById(id));
+        assertEquals(0, tasks.indexOf(second));
+        assertEquals(-1, tasks.indexOf(first));
+        assertEquals(second, tasks.removeById(id));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void add_afterRemovingLastTask_neverReusesId() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        Task removed = new Todo("removed");
+        tasks.add(removed);
+        tasks.remove(0);
+
+        Task added = new Todo("added");
+        tasks.add(added);
+
+        assertTrue(added.getId() > removed.getId());
+    }
+}
@@ -0,0 +1,39 @@
+package prometheus.command;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Deadline;
+import prometheus.task.Event;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AgendaCommandTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 11);
+
+    @Test
+    public void execute_week_showsDueDeadlinesAndOverlappingEventsInOrder() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("submit report", LocalDateTime.of(2024, 3, 15, 23, 59)));
+        tasks.add(new Deadline("pay rent", LocalDateTime.of(2024, 4, 1, 12, 0)));
+        tasks.add(new Event("conference", LocalDateTime.of(2024, 3, 9, 9, 0), LocalDateTime.of(2024, 3, 12, 17, 0)));
+
+        CommandResult result = new AgendaCommand("", TODAY).execute(tasks, new Storage(null));
+
+        assertEquals("Here is your agenda between Mar 11 2024, 12:00AM and Mar 17 2024, 11:59PM:\n"
+                + " 1.[E][ ] conference (from: Mar 09 2024, 9:00AM to: Mar 12 2024, 5:00PM)\n"
+                + " 2.[D][ ] submit report (by: Mar 15 2024, 11:59PM)\n", result.render());
+    }
+
+    @Test
+    public void constructor_rangeEndingBeforeStart_throwsException() {
+        assertThrows(PrometheusException.class, () -> new AgendaCommand("2024-03-12 1000 /to 2024-03-11 1000", TODAY));
+    }
+}
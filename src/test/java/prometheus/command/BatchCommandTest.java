@@ -0,0 +1,99 @@
+package prometheus.command;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.Parser;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskList createTasks(Storage storage, int count) throws PrometheusException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= count; i++) {
+            Parser.parse("todo task " + i).execute(tasks, storage);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void execute_ranges_updatesSelectedTasks() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 10);
+
+        Parser.parse("mark 2-4").execute(tasks, storage);
+        Parser.parse("priority 1..2 high").execute(tasks, storage);
+        Parser.parse("delete 3,1,3").execute(tasks, storage);
+
+        assertEquals(8, tasks.size());
+        assertEquals("task 2", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isDone());
+        assertEquals(Priority.HIGH, tasks.get(0).getPriority());
+        assertTrue(tasks.get(1).isDone());
+        assertFalse(tasks.get(2).isDone());
+    }
+
+    @Test
+    public void execute_failingCommand_rollsBackWholeBatch() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = createTasks(storage, 3);
+        List<String> journal = Files.readAllLines(Path.of(file + ".journal"));
+
+        Command batch = Parser.parse("batch { todo new task; mark 1-3; delete 2; priority 1 high; delete 9 }");
+        PrometheusException e = assertThrows(PrometheusException.class,
+                () -> batch.execute(tasks, storage));
+
+        assertTrue(e.getMessage().startsWith("'delete 9' failed, so the batch was undone"));
+        assertEquals(List.of("task 1", "task 2", "task 3"), descriptions(tasks));
+        for (Task task : tasks) {
+            assertFalse(task.isDone());
+            assertEquals(Priority.MEDIUM, task.getPriority());
+        }
+        assertEquals(journal, Files.readAllLines(Path.of(file + ".journal")));
+    }
+
+    @Test
+    public void execute_successfulBatch_persistsAllChanges() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = createTasks(storage, 3);
+
+        Parser.parse("batch { todo task 4; mark 1-4\n delete 2 }").execute(tasks, storage);
+
+        assertEquals(List.of("task 1", "task 3", "task 4"), descriptions(tasks));
+        ArrayList<Task> loaded = new Storage(file.toString()).load();
+        assertEquals(descriptions(tasks), descriptions(loaded));
+        assertTrue(loaded.get(2).isDone());
+    }
+
+    @Test
+    public void constructor_nestedBatch_throwsException() {
+        assertThrows(PrometheusException.class, () -> new BatchCommand("{ batch { list } }"));
+        assertThrows(PrometheusException.class, () -> new BatchCommand("{ list; bye }"));
+        assertThrows(PrometheusException.class, () -> new BatchCommand("list"));
+    }
+
+    private static List<String> descriptions(Iterable<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+}
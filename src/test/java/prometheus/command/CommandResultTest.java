@@ -0,0 +1,73 @@
+package prometheus.command;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandResultTest {
+    @Test
+    public void render_rendersOnceOnlyWhenFirstNeeded() {
+        AtomicInteger renders = new AtomicInteger();
+        CommandResult result = new CommandResult(CommandResult.Kind.INFO, List.of(), -1, () -> {
+            renders.incrementAndGet();
+            return "text";
+        });
+
+        assertEquals(0, renders.get());
+        assertEquals("text", result.render());
+        assertEquals("text", result.toString());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void error_isPrefixed() {
+        CommandResult result = CommandResult.error("Invalid task index!");
+
+        assertTrue(result.isError());
+        assertEquals("Error! Invalid task index!", result.render());
+    }
+
+    @Test
+    public void execute_delete_describesRemovedTasksAndNewSize() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        Task first = new Todo("read book");
+        tasks.add(first);
+        tasks.add(new Todo("return book"));
+
+        CommandResult result = new DeleteCommand("1").execute(tasks, new Storage(null) {
+            @Override
+            public void recordDelete(TaskList tasks, Task task) {
+            }
+        });
+
+        assertEquals(CommandResult.Kind.REMOVED, result.getKind());
+        assertEquals(List.of(first), result.getTasks());
+        assertEquals(1, result.getListSize());
+        assertEquals("Noted. I've removed this task:\n  [T][ ] read book\nNow you have 1 tasks in the list.",
+                result.render());
+    }
+
+    @Test
+    public void execute_mark_showsTaskAsCommandLeftItAfterLaterChanges() throws PrometheusException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+
+        CommandResult result = new MarkCommand("1", true).execute(tasks, new Storage(null) {
+            @Override
+            public void recordMark(TaskList tasks, Task task) {
+            }
+        });
+        tasks.setDone(0, false);
+
+        assertEquals("Nice! I've marked this task as done:\n  [T][X] read book", result.render());
+    }
+}
@@ -0,0 +1,138 @@
+package prometheus.command;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.Parser;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+import prometheus.task.Priority;
+import prometheus.task.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImportExportCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void import_csv_addsValidRowsAndReportsRejected() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = new TaskList();
+        Path csv = tempDir.resolve("import.csv");
+        Files.write(csv, List.of(
+                "type,done,priority,description,by,from,to",
+                "todo,false,high,\"read, then summarise\",,,",
+                "deadline,true,,return book,2025-09-20 2359,,",
+                "chore,false,low,sweep,,,",
+                "",
+                "event,0,low,meeting,,2025-09-21 1400,2025-09-21 1600",
+                "deadline,false,low,no date,,,"));
+
+        CommandResult result = Parser.parse("import " + csv).execute(tasks, storage);
+
+        assertEquals(CommandResult.Kind.ADDED, result.getKind());
+        assertEquals(3, tasks.size());
+        assertEquals("read, then summarise", tasks.get(0).getDescription());
+        assertEquals(Priority.HIGH, tasks.get(0).getPriority());
+        assertTrue(tasks.get(1).isDone());
+        assertEquals(Priority.MEDIUM, tasks.get(1).getPriority());
+        assertEquals(1, tasks.find("meeting").size());
+        assertEquals(1, tasks.findScheduled(LocalDateTime.of(2025, 9, 21, 0, 0),
+                LocalDateTime.of(2025, 9, 22, 0, 0)).size());
+
+        String text = result.render();
+        assertTrue(text.startsWith("Imported 3 tasks from " + csv), text);
+        assertTrue(text.contains("Rejected 2 rows:\n  line 4: Unknown task type 'chore'"), text);
+        assertTrue(text.contains("\n  line 7: The 'by' date is missing"), text);
+        assertTrue(text.endsWith("Now you have 3 tasks in the list."), text);
+
+        assertEquals(3, new Storage(file.toString()).load().size());
+    }
+
+    @Test
+    public void exportThenImport_roundTripsEveryTask() throws Exception {
+        for (String extension : List.of("csv", "jsonl")) {
+            Storage storage = new Storage(tempDir.resolve("tasks-" + extension + ".txt").toString());
+            TaskList tasks = new TaskList();
+            Parser.parse("todo say \"hi\", then \\ leave").execute(tasks, storage);
+            Parser.parse("deadline return book /by 2025-09-20 2359").execute(tasks, storage);
+            Parser.parse("event meeting /from 2025-09-21 1400 /to 2025-09-21 1600").execute(tasks, storage);
+            Parser.parse("mark 2").execute(tasks, storage);
+            Parser.parse("priority 3 low").execute(tasks, storage);
+            Path exported = tempDir.resolve("tasks." + extension);
+
+            String message = Parser.parse("export " + exported).execute(tasks, storage).render();
+            assertTrue(message.startsWith("Exported 3 tasks to " + exported), message);
+
+            Storage copyStorage = new Storage(tempDir.resolve("copy-" + extension + ".txt").toString());
+            TaskList copy = new TaskList();
+            Parser.parse("import " + exported).execute(copy, copyStorage);
+            assertEquals(render(tasks), render(copy));
+        }
+    }
+
+    @Test
+    public void import_largeFile_addsEveryRowInOrder() throws Exception {
+        Path jsonl = tempDir.resolve("many.jsonl");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            lines.add("{\"type\": \"todo\", \"done\": " + (i % 2 == 0) + ", \"description\": \"task " + i + "\"}");
+        }
+        Files.write(jsonl, lines);
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = new TaskList();
+        Parser.parse("todo existing").execute(tasks, storage);
+
+        Parser.parse("import " + jsonl).execute(tasks, storage);
+
+        assertEquals(10_001, tasks.size());
+        assertEquals("task 9999", tasks.get(10_000).getDescription());
+        assertTrue(tasks.get(1).isDone());
+        assertEquals(1, tasks.find("task 4242").size());
+        assertEquals(10_001, new Storage(tempDir.resolve("tasks.txt").toString()).load().size());
+    }
+
+    @Test
+    public void import_missingFile_leavesListUnchanged() throws Exception {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = new TaskList();
+        Parser.parse("todo existing").execute(tasks, storage);
+
+        Command command = Parser.parse("import " + tempDir.resolve("missing.csv"));
+        assertThrows(PrometheusException.class, () -> command.execute(tasks, storage));
+        assertEquals(1, tasks.size());
+
+        assertThrows(PrometheusException.class, () -> Parser.parse("import tasks.xlsx"));
+        assertThrows(PrometheusException.class, () -> Parser.parse("export"));
+    }
+
+    @Test
+    public void import_inBatch_isRejected() throws Exception {
+        Path csv = tempDir.resolve("import.csv");
+        Files.write(csv, List.of("todo,,,read"));
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = new TaskList();
+
+        Command batch = Parser.parse("batch { todo first; import " + csv + " }");
+        assertThrows(PrometheusException.class, () -> batch.execute(tasks, storage));
+        assertEquals(0, tasks.size());
+    }
+
+    private static List<String> render(TaskList tasks) {
+        List<String> rendered = new ArrayList<>();
+        for (Task task : tasks) {
+            rendered.add(task.toString() + " " + task.getPriority());
+        }
+        return rendered;
+    }
+}
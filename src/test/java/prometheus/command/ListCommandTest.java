@@ -0,0 +1,98 @@
+package prometheus.command;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.Parser;
+import prometheus.PrometheusException;
+import prometheus.Storage;
+import prometheus.TaskList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ListCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskList createTasks(Storage storage, int count) throws PrometheusException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= count; i++) {
+            Parser.parse("todo task " + i).execute(tasks, storage);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void execute_page_listsOnlyTasksOnPage() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 7);
+
+        CommandResult result = Parser.parse("list --page 2 --size 3").execute(tasks, storage);
+
+        assertEquals("Here are the tasks in your list (page 2 of 3):\n"
+                + " 4.[T][ ] task 4\n 5.[T][ ] task 5\n 6.[T][ ] task 6\n", result.render());
+        assertEquals(3, result.getTasks().size());
+        assertEquals(7, result.getListSize());
+        assertEquals("Here are the tasks in your list (page 3 of 3):\n 7.[T][ ] task 7\n",
+                Parser.parse("list --size 3 --page 3").execute(tasks, storage).render());
+    }
+
+    @Test
+    public void execute_pageOptions_defaultAndCombineWithFilters() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 120);
+        Parser.parse("priority 1-60 high").execute(tasks, storage);
+
+        assertEquals(50, Parser.parse("list --page 1").execute(tasks, storage).getTasks().size());
+        assertEquals(20, Parser.parse("list --page 3").execute(tasks, storage).getTasks().size());
+        assertEquals(10, Parser.parse("list high --size 10").execute(tasks, storage).getTasks().size());
+        assertTrue(Parser.parse("list high --page 6 --size 10").execute(tasks, storage).render()
+                .startsWith("Here are the high priority tasks in your list (page 6 of 6):\n 51.[T][ ] task 51"));
+        // "task 10" matches tasks 10 and 100 to 109
+        assertEquals("Here are the matching tasks in your list (page 3 of 3):\n 11.[T][ ] task 109\n",
+                Parser.parse("find task 10 --size 5 --page 3").execute(tasks, storage).render());
+    }
+
+    @Test
+    public void execute_optionsWithinKeyword_areSearchedFor() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 3);
+        Parser.parse("todo pass --page 2 to the printer").execute(tasks, storage);
+
+        CommandResult result = Parser.parse("find --page 2 to --size 1").execute(tasks, storage);
+
+        assertEquals("Here are the matching tasks in your list (page 1 of 1):\n"
+                + " 1.[T][ ] pass --page 2 to the printer\n", result.render());
+    }
+
+    @Test
+    public void execute_invalidPage_throws() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 5);
+
+        Command pastEnd = Parser.parse("list --page 2");
+        assertThrows(PrometheusException.class, () -> pastEnd.execute(tasks, storage));
+        assertThrows(PrometheusException.class, () -> Parser.parse("list --page 0"));
+        assertThrows(PrometheusException.class, () -> Parser.parse("list --size many"));
+        assertThrows(PrometheusException.class, () -> Parser.parse("find --page 2"));
+    }
+
+    @Test
+    public void printTo_printsSameTextAsRender() throws PrometheusException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        TaskList tasks = createTasks(storage, 200);
+
+        for (String command : new String[] {"list", "list --page 2 --size 30", "find task 1", "top 5", "mark 3"}) {
+            ByteArrayOutputStream printed = new ByteArrayOutputStream();
+            CommandResult result = Parser.parse(command).execute(tasks, storage);
+            result.printTo(new PrintStream(printed, true, StandardCharsets.UTF_8));
+            assertEquals(result.render() + System.lineSeparator(), printed.toString(StandardCharsets.UTF_8), command);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package prometheus.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    public void findOverlapping_randomIntervals_matchesScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<Task> tasks = new ArrayList<>();
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime from = BASE.plusHours(random.nextInt(1000));
+            LocalDateTime to = from.plusHours(random.nextInt(48));
+            Task task = new Todo("event " + i);
+            tree.add(task, from, to);
+            tasks.add(task);
+            intervals.add(new LocalDateTime[] {from, to});
+        }
+        for (int i = 0; i < 100; i++) {
+            int index = random.nextInt(tasks.size());
+            tree.remove(tasks.remove(index));
+            intervals.remove(index);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            LocalDateTime start = BASE.plusHours(random.nextInt(1000));
+            LocalDateTime end = start.plusHours(random.nextInt(72));
+            Set<Task> expected = new HashSet<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!intervals.get(i)[0].isAfter(end) && !intervals.get(i)[1].isBefore(start)) {
+                    expected.add(tasks.get(i));
+                }
+            }
+            List<Task> actual = new ArrayList<>();
+            tree.findOverlapping(start, end, actual);
+            assertEquals(expected, new HashSet<>(actual));
+            assertEquals(expected.size(), actual.size());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package prometheus.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import prometheus.task.Task;
+import prometheus.task.Todo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskOrderTest {
+
+    @Test
+    public void getAndRemove_randomOperations_matchesArrayList() {
+        Random random = new Random(7);
+        TaskOrder order = new TaskOrder();
+        List<Task> expected = new ArrayList<>();
+        long nextId = 1;
+
+        for (int step = 0; step < 5000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new Todo("task " + nextId);
+                task.setId(nextId++);
+                order.add(task);
+                expected.add(task);
+            } else {
+                int position = random.nextInt(expected.size());
+                assertEquals(expected.remove(position), order.remove(position));
+            }
+
+            if (!expected.isEmpty()) {
+                int position = random.nextInt(expected.size());
+                Task task = expected.get(position);
+                assertEquals(task, order.get(position));
+                assertEquals(position, order.positionOf(task.getId()));
+            }
+        }
+        assertEquals(expected, order.toList());
+    }
+
+    @Test
+    public void positionOf_removedTask_returnsMinusOne() {
+        TaskOrder order = new TaskOrder();
+        for (long id = 1; id <= 100; id++) {
+            Task task = new Todo("task " + id);
+            task.setId(id);
+            order.add(task);
+        }
+        for (int i = 0; i < 90; i++) {
+            order.remove(0);
+        }
+
+        assertEquals(-1, order.positionOf(50));
+        assertEquals(0, order.positionOf(91));
+        assertEquals(10, order.size());
+    }
+
+    @Test
+    public void restore_afterCompaction_returnsTaskToOriginalPosition() {
+        TaskOrder order = new TaskOrder();
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Task task = new Todo("task " + id);
+            task.setId(id);
+            order.add(task);
+            tasks.add(task);
+        }
+
+        Task removed = order.remove(10);
+        order.restore(removed);
+        assertEquals(tasks, order.toList());
+
+        List<Task> removedTasks = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            removedTasks.add(order.remove(0));
+        }
+        for (int i = removedTasks.size() - 1; i >= 0; i--) {
+            order.restore(removedTasks.get(i));
+        }
+        assertEquals(tasks, order.toList());
+        assertEquals(45, order.positionOf(46));
+    }
+}
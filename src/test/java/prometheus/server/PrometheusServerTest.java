@@ -0,0 +1,161 @@
+package prometheus.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import prometheus.Prometheus;
+import prometheus.Storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrometheusServerTest {
+    private static final String TOKEN = "test-token";
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @TempDir
+    Path tempDir;
+
+    private PrometheusServer startServer(String filePath) throws IOException {
+        PrometheusServer server = new PrometheusServer(new Prometheus(filePath), 0, TOKEN);
+        server.start();
+        return server;
+    }
+
+    private HttpResponse<String> post(int port, String path, String body, String... headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String send(int port, String command) throws IOException, InterruptedException {
+        HttpResponse<String> response = post(port, PrometheusServer.COMMAND_PATH, command,
+                PrometheusServer.TOKEN_HEADER, TOKEN);
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+
+    @Test
+    public void command_returnsResponseOfCommand() throws Exception {
+        PrometheusServer server = startServer(tempDir.resolve("tasks.txt").toString());
+        try {
+            assertEquals("Got it. I've added this task:\n  [T][ ] read book\nNow you have 1 tasks in the list.",
+                    send(server.getPort(), "todo read book"));
+            assertEquals("Here are the tasks in your list:\n 1.[T][ ] read book\n", send(server.getPort(), "list"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void command_failing_returnsUnprocessableWithError() throws Exception {
+        PrometheusServer server = startServer(tempDir.resolve("tasks.txt").toString());
+        try {
+            HttpResponse<String> response = post(server.getPort(), PrometheusServer.COMMAND_PATH, "mark 5",
+                    PrometheusServer.TOKEN_HEADER, TOKEN);
+            assertEquals(422, response.statusCode());
+            assertTrue(response.body().startsWith("Error! "));
+
+            assertEquals(404, post(server.getPort(), "/other", "list").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void commands_fromConcurrentClients_areAllApplied() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        PrometheusServer server = startServer(filePath);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        try {
+            List<Thread> clients = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                String name = "client" + c;
+                clients.add(new Thread(() -> {
+                            try {
+                        for (int i = 0; i < 50; i++) {
+                            String response = send(server.getPort(), "todo " + name + " " + i);
+                            assertTrue(response.contains("[T][ ] " + name + " " + i + "\n"), response);
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    }
+                }));
+            }
+            clients.forEach(Thread::start);
+            for (Thread client : clients) {
+                client.join();
+            }
+            send(server.getPort(), "bye");
+        } finally {
+            server.stop();
+        }
+
+        assertTrue(errors.isEmpty(), "Clients failed: " + errors);
+        assertEquals(400, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void command_withoutTokenOrFromBrowser_isRefused() throws Exception {
+        PrometheusServer server = startServer(tempDir.resolve("tasks.txt").toString());
+        try {
+            String path = PrometheusServer.COMMAND_PATH;
+            assertEquals(401, post(server.getPort(), path, "todo sneaky").statusCode());
+            assertEquals(401, post(server.getPort(), path, "todo sneaky",
+                    PrometheusServer.TOKEN_HEADER, "guess").statusCode());
+            assertEquals(403, post(server.getPort(), path, "todo sneaky",
+                    PrometheusServer.TOKEN_HEADER, TOKEN, "Origin", "https://example.com").statusCode());
+            assertEquals("Your task list is empty!", send(server.getPort(), "list"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void isLoopbackHost_hostHeader_acceptsOnlyLoopbackNames() {
+        assertTrue(PrometheusServer.isLoopbackHost("127.0.0.1:8765"));
+        assertTrue(PrometheusServer.isLoopbackHost("localhost"));
+        assertTrue(PrometheusServer.isLoopbackHost("[::1]:8765"));
+        assertFalse(PrometheusServer.isLoopbackHost(null));
+        assertFalse(PrometheusServer.isLoopbackHost("attacker.example:8765"));
+        assertFalse(PrometheusServer.isLoopbackHost("localhost.attacker.example"));
+        assertFalse(PrometheusServer.isLoopbackHost("[::1]x"));
+    }
+
+    @Test
+    public void exportAndImport_pathOutsideTransfers_isRefused() throws Exception {
+        PrometheusServer server = startServer(tempDir.resolve("tasks.txt").toString());
+        try {
+            send(server.getPort(), "todo read book");
+            assertTrue(send(server.getPort(), "export tasks.csv").startsWith("Exported 1 tasks"));
+            assertTrue(Files.exists(tempDir.resolve("transfers").resolve("tasks.csv")));
+
+            String[] refused = {"export ../tasks.csv", "export " + tempDir.resolve("tasks.csv"), "import ../x.csv"};
+            for (String command : refused) {
+                HttpResponse<String> response = post(server.getPort(), PrometheusServer.COMMAND_PATH, command,
+                        PrometheusServer.TOKEN_HEADER, TOKEN);
+                assertEquals(422, response.statusCode(), command);
+            }
+            assertFalse(Files.exists(tempDir.resolve("tasks.csv")));
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package prometheus.task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+import prometheus.PrometheusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DateCodecTest {
+
+    @Test
+    public void formatStorage_dateTime_matchesFormatter() {
+        LocalDateTime dateTime = LocalDateTime.of(2019, 12, 2, 8, 5);
+
+        assertEquals(DateCodec.STORAGE_FORMATTER.format(dateTime), DateCodec.formatStorage(dateTime));
+        assertEquals("2019-12-02 0805", DateCodec.formatStorage(dateTime));
+    }
+
+    @Test
+    public void parseStorage_validText_returnsDateTime() throws PrometheusException {
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateCodec.parseStorage(" 2019-12-02 1800 "));
+    }
+
+    @Test
+    public void parseStorage_invalidDate_throwsPrometheusException() {
+        assertThrows(PrometheusException.class, () -> DateCodec.parseStorage("2019-13-02 1800"));
+        assertThrows(PrometheusException.class, () -> DateCodec.parseStorage("2019-12-02 18:00"));
+    }
+
+    @Test
+    public void parseStorage_dayPastEndOfMonth_clampsLikeFormatter() throws PrometheusException {
+        assertEquals(LocalDateTime.of(2019, 2, 28, 12, 0), DateCodec.parseStorage("2019-02-30 1200"));
+        assertEquals(LocalDateTime.of(2020, 2, 29, 12, 0), DateCodec.parseStorage("2020-02-31 1200"));
+        assertEquals(LocalDateTime.of(2019, 4, 30, 9, 30), DateCodec.parseStorage("2019-04-31 0930"));
+        assertThrows(PrometheusException.class, () -> DateCodec.parseStorage("2019-02-32 1200"));
+    }
+
+    @Test
+    public void parseStorage_yearZero_rejectedLikeFormatter() {
+        assertThrows(DateTimeParseException.class,
+                () -> LocalDateTime.parse("0000-01-01 1200", DateCodec.STORAGE_FORMATTER));
+        assertThrows(PrometheusException.class, () -> DateCodec.parseStorage("0000-01-01 1200"));
+    }
+}
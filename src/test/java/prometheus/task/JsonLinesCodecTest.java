@@ -0,0 +1,29 @@
+package prometheus.task;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import prometheus.PrometheusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonLinesCodecTest {
+
+    @Test
+    public void split_unicodeEscape_isUnescaped() throws PrometheusException {
+        String[] values = JsonLinesCodec.split("{\"description\":\"caf\\u00E9\"}", List.of("description"));
+
+        assertEquals(List.of("caf\u00e9"), List.of(values));
+    }
+
+    @Test
+    public void split_unicodeEscapeWithSignOrNonAsciiDigit_throwsPrometheusException() {
+        List<String> keys = List.of("description");
+
+        assertThrows(PrometheusException.class, () -> JsonLinesCodec.split("{\"description\":\"\\u+041\"}", keys));
+        assertThrows(PrometheusException.class, () -> JsonLinesCodec.split("{\"description\":\"\\u-041\"}", keys));
+        assertThrows(PrometheusException.class,
+                () -> JsonLinesCodec.split("{\"description\":\"\\u\u0664\u0661\u0664\u0661\"}", keys));
+    }
+}
@@ -1,5 +1,10 @@
 package prometheus.task;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import prometheus.PrometheusException;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,4 +39,67 @@ public class TaskTest {
             Task.fromFileString(invalidFileString);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void toFileBytes_afterChange_reencodesTask() {
+        Task task = new Todo("read book");
+        byte[] cached = task.toFileBytes();
+        assertFalse(task.isDirty());
+        assertSame(cached, task.toFileBytes());
+
+        task.markAsDone();
+        assertTrue(task.isDirty());
+        assertEquals(task.toFileString(), new String(task.toFileBytes(), StandardCharsets.UTF_8));
+
+        task.setPriority(Priority.HIGH);
+        assertEquals("T | 1 | 2 | read book", new String(task.toFileBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toFileBytes_changedWhileEncoding_reencodesTask() throws Exception {
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch marked = new CountDownLatch(1);
+        Task task = new Todo("read book") {
+            @Override
+            public String toFileString() {
+                String record = super.toFileString();
+                if (encoding.getCount() > 0) {
+                    // Holds the save here, with the old status encoded, until the task has been marked
+                    encoding.countDown();
+                    try {
+                        marked.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return record;
+            }
+        };
+        Thread save = new Thread(task::toFileBytes);
+        save.start();
+        assertTrue(encoding.await(5, TimeUnit.SECONDS));
+        task.markAsDone();
+        marked.countDown();
+        save.join();
+
+        assertTrue(task.isDirty());
+        assertEquals("T | 1 | 1 | read book", new String(task.toFileBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toString_afterChange_reformatsTask() {
+        Task task = new Deadline("return book", LocalDateTime.of(2025, 9, 20, 23, 59));
+        String cached = task.toString();
+        assertSame(cached, task.toString());
+
+        task.markAsDone();
+        assertEquals("[D][X] return book (by: Sep 20 2025, 11:59PM)", task.toString());
+
+        task.setPriority(Priority.HIGH);
+        assertEquals("[D][X] return book #high (by: Sep 20 2025, 11:59PM)", task.toString());
+
+        task.markAsNotDone();
+        assertEquals("[D][ ] return book #high (by: Sep 20 2025, 11:59PM)", task.toString());
+        assertSame(task.toString(), task.toString());
+    }
+}